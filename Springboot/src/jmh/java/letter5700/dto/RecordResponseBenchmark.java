@@ -0,0 +1,74 @@
+package letter5700.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import letter5700.entity.Advice;
+import letter5700.entity.DailyRecord;
+import letter5700.entity.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기록 상세 응답 (GET /api/records/{id})
+ * - 5,700자 편지가 달린 기록 -> RecordResponse -> JSON 바이트
+ * - ObjectMapper 설정은 스프링 부트 기본값과 같게 (JavaTimeModule, 날짜는 문자열)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordResponseBenchmark {
+
+    private static final int LETTER_CHARS = 5700;
+
+    private DailyRecord record;
+    private RecordResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        StringBuilder letter = new StringBuilder(LETTER_CHARS);
+        while (letter.length() < LETTER_CHARS) {
+            letter.append("오늘 하루도 정말 수고 많았어요. 천천히 숨을 고르고, 내일의 당신을 믿어 보세요.\n");
+        }
+        record = new DailyRecord(new Member("benchmark-user", "pw", "벤치마크", "USER"), "회의가 길어져서 많이 지쳤다. 그래도 저녁은 맛있었다.", "피로",
+                LocalDateTime.of(2025, 11, 3, 21, 30));
+        record.setId(1L);
+        record.setAdvice(new Advice(record, letter.substring(0, LETTER_CHARS)));
+        response = new RecordResponse(record);
+    }
+
+    @Benchmark
+    public RecordResponse construct() {
+        return new RecordResponse(record);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] constructAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(new RecordResponse(record));
+    }
+}
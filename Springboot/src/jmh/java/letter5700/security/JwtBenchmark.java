@@ -0,0 +1,64 @@
+package letter5700.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 실행되는 JWT 처리 (JwtAuthenticationFilter 경로)
+ * - parseClaims: 서명 검증 + claim 추출 (정상 토큰)
+ * - rejectTampered: 서명이 틀린 토큰 거절
+ * - createToken: 로그인 시 발급
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider provider;
+    private String token;
+    private String tampered;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        provider = new JwtTokenProvider();
+        // @Value 필드 주입 대신 직접 설정 (스프링 컨텍스트 없이 측정)
+        Field secret = JwtTokenProvider.class.getDeclaredField("secretKey");
+        secret.setAccessible(true);
+        secret.set(provider, "MySuperSecretKeyForLetter5700ApplicationMustBeLongEnough");
+        provider.init();
+
+        token = provider.createToken("benchmark-user", "USER");
+        char last = token.charAt(token.length() - 1);
+        tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return provider.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean rejectTampered() {
+        return provider.validateToken(tampered);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return provider.createToken("benchmark-user", "USER");
+    }
+}
@@ -0,0 +1,75 @@
+package letter5700.service;
+
+import letter5700.vector.SearchHit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 편지 생성 프롬프트 조립 (검색 결과 -> 참고 지식 -> PromptTemplate.ADVICE)
+ * - 일기는 약 1,000자, 참고 지식은 검색 상위 3건
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBenchmark {
+
+    private List<SearchHit> hits;
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        hits = List.of(
+                hit("불안은 통제할 수 없는 미래를 통제하려는 마음에서 온다. 현재에 집중하라."),
+                hit("진정한 휴식은 멈춤이 아니라, 나를 돌보는 적극적인 행위이다."),
+                hit("슬픔을 억누르면 엉뚱한 곳에서 터진다. 충분히 울어야 비로소 웃을 수 있다."));
+
+        StringBuilder diary = new StringBuilder();
+        while (diary.length() < 1000) {
+            diary.append("오늘은 회의가 길어져서 많이 지쳤다. 퇴근길에 본 노을이 예뻐서 한참 서 있었다. ");
+        }
+        variables = new HashMap<>();
+        variables.put("diary", diary.toString());
+        variables.put("knowledge", AdvicePipeline.toKnowledgeContext(hits));
+        variables.put("memories", "없음");
+    }
+
+    private static SearchHit hit(String content) {
+        return new SearchHit(UUID.randomUUID(), 0.8f, Map.of("content", content));
+    }
+
+    @Benchmark
+    public String knowledgeContext() {
+        return AdvicePipeline.toKnowledgeContext(hits);
+    }
+
+    @Benchmark
+    public String renderAdvicePrompt() {
+        return PromptTemplate.ADVICE.render(variables);
+    }
+
+    @Benchmark
+    public String assembleAdvicePrompt() {
+        Map<String, String> perRequest = new HashMap<>();
+        perRequest.put("diary", variables.get("diary"));
+        perRequest.put("knowledge", AdvicePipeline.toKnowledgeContext(hits));
+        perRequest.put("memories", variables.get("memories"));
+        return PromptTemplate.ADVICE.render(perRequest);
+    }
+}
@@ -0,0 +1,66 @@
+package letter5700.vector;
+
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points.PointStruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Qdrant 업서트 요청 만들기 (QdrantVectorStore.toPoint / convertToValue)
+ * - 768차원 벡터 + 지식 문장 payload 하나 = 업서트 배치의 한 건
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QdrantPointBenchmark {
+
+    private VectorPoint point;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        float[] values = new float[768];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) random.nextDouble(-1, 1);
+        }
+        payload = new LinkedHashMap<>();
+        payload.put("content", "불안은 통제할 수 없는 미래를 통제하려는 마음에서 온다. 현재에 집중하라.");
+        payload.put("memberId", 12345L);
+        payload.put("score", 0.87);
+        payload.put("active", true);
+        point = new VectorPoint(UUID.randomUUID(), FloatVector.wrap(values), payload);
+    }
+
+    @Benchmark
+    public PointStruct pointStruct() {
+        return QdrantVectorStore.toPoint(point, "text");
+    }
+
+    @Benchmark
+    public int payloadValues() {
+        int size = 0;
+        for (Object value : payload.values()) {
+            JsonWithInt.Value converted = QdrantVectorStore.convertToValue(value);
+            size += converted.getSerializedSize();
+        }
+        return size;
+    }
+}
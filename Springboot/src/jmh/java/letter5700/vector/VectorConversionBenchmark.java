@@ -0,0 +1,84 @@
+package letter5700.vector;
+
+import io.qdrant.client.VectorFactory;
+import io.qdrant.client.grpc.Points;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 임베딩 벡터 변환 비용 (List<Float> 박싱 경로 vs float[] 경로)
+ * - sdkListToFloatVector: SDK 응답(List<Float>) -> FloatVector (언박싱 한 번)
+ * - boxedDenseVector / primitiveDenseVector: Qdrant 요청 벡터 (VectorFactory 박싱 vs 직접 추가)
+ * - toBytes / fromBytes: 임베딩 캐시(DB) 저장 형식
+ * - dot: 코사인 유사도 (SIMD 가능하면 Vector API)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorConversionBenchmark {
+
+    private List<Float> boxed;
+    private FloatVector vector;
+    private FloatVector other;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        boxed = new ArrayList<>(768);
+        float[] values = new float[768];
+        for (int i = 0; i < 768; i++) {
+            values[i] = (float) random.nextDouble(-1, 1);
+            boxed.add(values[i]);
+        }
+        vector = FloatVector.wrap(values);
+        other = FloatVector.copyOf(boxed.reversed());
+        bytes = vector.toBytes();
+    }
+
+    @Benchmark
+    public FloatVector sdkListToFloatVector() {
+        return FloatVector.copyOf(boxed);
+    }
+
+    @Benchmark
+    public Points.Vector boxedDenseVector() {
+        return VectorFactory.vector(boxed);
+    }
+
+    @Benchmark
+    public Points.Vector primitiveDenseVector() {
+        return QdrantVectorStore.toDenseVector(vector);
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return vector.toBytes();
+    }
+
+    @Benchmark
+    public FloatVector fromBytes() {
+        return FloatVector.fromBytes(bytes);
+    }
+
+    @Benchmark
+    public double dot() {
+        return vector.dot(other);
+    }
+}
@@ -0,0 +1,342 @@
+package letter5700.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 부하 테스트 드라이버 (./gradlew loadTest -Pload.rate=5 ...)
+ * - 대상: ./gradlew bootRunSimulated 로 띄운 서버 (Gemini / Qdrant / FCM 은 시뮬레이션, DB 는 실제)
+ * - 열린 모델: 응답을 기다리지 않고 초당 load.rate 건씩 POST /api/records (서버가 느려져도 도착률 유지)
+ * - 기록마다 GET /api/records/{id}/advice 를 ETag 로 폴링해서 편지 도착 시간 측정
+ * - 1초마다 /actuator/prometheus 를 읽어 실행기 / 외부 호출 / DB 풀 포화도 기록
+ *   (Actuator 전용 포트: load.metrics-url, 기본 http://localhost:9090)
+ * - 끝나면 요약 출력, 기준(load.max-letter-p95-ms, load.min-success-rate)을 넘으면 종료 코드 1
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // 포화도로 볼 지표 (Prometheus 이름)
+    private static final List<String> SATURATION_METRICS = List.of(
+            "advice_executor_in_flight",
+            "advice_executor_queued",
+            "advice_executor_capacity",
+            "gemini_limiter_concurrency_limit",
+            "gemini_limiter_in_flight",
+            "gemini_limiter_waiting",
+            "external_calls_in_flight",
+            "external_calls_waiting",
+            "fcm_queue_depth",
+            "hikaricp_connections_active",
+            "hikaricp_connections_pending",
+            "tomcat_threads_busy_threads");
+    private static final Pattern METRIC_LINE = Pattern.compile("^([a-zA-Z_:][a-zA-Z0-9_:]*)(\\{[^}]*})?\\s+(\\S+)");
+
+    private static final String[] DIARY_SENTENCES = {
+            "오늘은 회의가 길어져서 많이 지쳤다.",
+            "친구와 오랜만에 통화해서 기분이 좋았다.",
+            "내일 발표가 있어서 조금 불안하다.",
+            "퇴근길에 본 노을이 예뻐서 한참 서 있었다.",
+            "별일 없는 하루였지만 이상하게 마음이 무겁다.",
+            "운동을 다녀와서 몸은 피곤하지만 개운하다."
+    };
+
+    private final String baseUrl = System.getProperty("load.base-url", "http://localhost:8080");
+    private final String metricsUrl = System.getProperty("load.metrics-url", "http://localhost:9090");
+    private final int users = Integer.getInteger("load.users", 20);
+    private final double rate = Double.parseDouble(System.getProperty("load.rate", "5"));
+    private final int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+    private final int letterTimeoutSeconds = Integer.getInteger("load.letter-timeout-seconds", 180);
+    private final int pollIntervalMs = Integer.getInteger("load.poll-interval-ms", 500);
+    private final long maxLetterP95Ms = Long.getLong("load.max-letter-p95-ms", 0);
+    private final double minSuccessRate = Double.parseDouble(System.getProperty("load.min-success-rate", "0"));
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 결과 집계
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final Map<String, AtomicInteger> rejected = new ConcurrentHashMap<>();
+    private final List<Long> submitLatencies = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> letterLatencies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger lettersReady = new AtomicInteger();
+    private final AtomicInteger lettersFailed = new AtomicInteger();
+    private final AtomicInteger lettersTimedOut = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<String, Saturation> saturation = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new LoadDriver().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        System.out.println(">>> 부하 테스트: " + baseUrl + ", 사용자 " + users + "명, 초당 " + rate + "건, "
+                + durationSeconds + "초");
+        List<String> tokens = signUpUsers();
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        scheduler.scheduleAtFixedRate(this::sampleMetrics, 0, 1, TimeUnit.SECONDS);
+
+        // 열린 모델: 정해진 간격마다 제출 (이전 요청 완료를 기다리지 않음)
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (long next = start; next < end; next += intervalNanos) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            String token = tokens.get(submitted.getAndIncrement() % tokens.size());
+            workers.submit(() -> submitAndTrack(token));
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(">>> 제출 종료, 남은 편지 " + pending.get() + "건 대기 중...");
+
+        // 남은 편지 기다리기 (폴링 시간 제한이 있으므로 최대 letterTimeout 만큼)
+        workers.shutdown();
+        workers.awaitTermination(letterTimeoutSeconds + 30L, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+
+        return report(elapsedSeconds);
+    }
+
+    // 사용자 준비 (실행마다 새 계정, 토큰은 돌아가며 사용)
+    private List<String> signUpUsers() throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String username = "load-" + runId + "-" + i;
+            Map<String, String> credentials = Map.of("username", username, "password", "load-test-pw");
+            Map<String, String> signup = new LinkedHashMap<>(credentials);
+            signup.put("name", "부하테스트" + i);
+
+            HttpResponse<String> signupResponse = send(post("/api/auth/signup", null, signup));
+            if (signupResponse.statusCode() != 200) {
+                throw new IllegalStateException("회원가입 실패 (" + signupResponse.statusCode() + "): " + signupResponse.body());
+            }
+            HttpResponse<String> login = send(post("/api/auth/login", null, credentials));
+            if (login.statusCode() != 200) {
+                throw new IllegalStateException("로그인 실패 (" + login.statusCode() + "): " + login.body());
+            }
+            tokens.add(JSON.readTree(login.body()).path("token").asText());
+        }
+        System.out.println(">>> 사용자 " + tokens.size() + "명 준비 완료");
+        return tokens;
+    }
+
+    // 기록 제출 후 편지가 도착할 때까지 폴링
+    private void submitAndTrack(String token) {
+        long startNanos = System.nanoTime();
+        long recordId;
+        try {
+            Map<String, String> body = new LinkedHashMap<>();
+            body.put("content", diary());
+            body.put("fcmToken", "load-fcm-" + ThreadLocalRandom.current().nextInt(users));
+            HttpResponse<String> response = send(post("/api/records", token, body));
+            submitLatencies.add(elapsedMillis(startNanos));
+            if (response.statusCode() != 200) {
+                rejected.computeIfAbsent("HTTP " + response.statusCode(), key -> new AtomicInteger()).incrementAndGet();
+                return;
+            }
+            recordId = JSON.readTree(response.body()).path("recordId").asLong();
+            accepted.incrementAndGet();
+        } catch (Exception e) {
+            rejected.computeIfAbsent(e.getClass().getSimpleName(), key -> new AtomicInteger()).incrementAndGet();
+            return;
+        }
+
+        pending.incrementAndGet();
+        try {
+            trackLetter(token, recordId, startNanos);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private void trackLetter(String token, long recordId, long startNanos) {
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(letterTimeoutSeconds);
+        String etag = null;
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/records/" + recordId + "/advice"))
+                        .header("Authorization", "Bearer " + token)
+                        .timeout(Duration.ofSeconds(10))
+                        .GET();
+                if (etag != null) request.header("If-None-Match", etag);
+                HttpResponse<String> response = send(request.build());
+                if (response.statusCode() == 304) continue;
+                if (response.statusCode() != 200) continue;
+                etag = response.headers().firstValue("ETag").orElse(null);
+
+                String status = JSON.readTree(response.body()).path("status").asText();
+                if (status.equals("ready")) {
+                    letterLatencies.add(elapsedMillis(startNanos));
+                    lettersReady.incrementAndGet();
+                    return;
+                }
+                if (status.equals("failed")) {
+                    lettersFailed.incrementAndGet();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // 일시적인 폴링 실패는 다음 주기에 다시 시도
+            }
+        }
+        lettersTimedOut.incrementAndGet();
+    }
+
+    // /actuator/prometheus 에서 포화도 지표 수집 (같은 이름의 여러 태그는 합산)
+    private void sampleMetrics() {
+        try {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(metricsUrl + "/actuator/prometheus"))
+                    .timeout(Duration.ofSeconds(5)).GET().build());
+            if (response.statusCode() != 200) return;
+
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (String line : response.body().split("\n")) {
+                if (line.startsWith("#")) continue;
+                Matcher matcher = METRIC_LINE.matcher(line);
+                if (!matcher.find()) continue;
+                String name = matcher.group(1);
+                String series = matcher.group(2) == null ? "" : dependencyTag(matcher.group(2));
+                if (!SATURATION_METRICS.contains(name)) continue;
+                values.merge(name + series, Double.parseDouble(matcher.group(3)), Double::sum);
+            }
+            values.forEach((name, value) -> saturation.computeIfAbsent(name, key -> new Saturation()).add(value));
+        } catch (Exception e) {
+            // 서버가 바쁘면 이번 표본은 건너뜀
+        }
+    }
+
+    // external_calls_* 는 의존성별로 따로 봄
+    private static String dependencyTag(String labels) {
+        Matcher matcher = Pattern.compile("dependency=\"([^\"]+)\"").matcher(labels);
+        return matcher.find() ? "{" + matcher.group(1) + "}" : "";
+    }
+
+    private boolean report(double elapsedSeconds) {
+        int total = submitted.get();
+        int finished = lettersReady.get() + lettersFailed.get() + lettersTimedOut.get();
+        double successRate = total == 0 ? 0 : (double) lettersReady.get() / total;
+        long letterP95 = percentile(letterLatencies, 0.95);
+
+        System.out.println();
+        System.out.println("==================== 부하 테스트 결과 ====================");
+        System.out.printf("제출      : %d건 / %.1f초 = 초당 %.2f건 (목표 %.2f)%n", total, elapsedSeconds, total / elapsedSeconds, rate);
+        System.out.printf("접수      : %d건, 거절 %s%n", accepted.get(), rejected.isEmpty() ? "없음" : rejected);
+        System.out.println("제출 응답 : " + summary(submitLatencies));
+        System.out.printf("편지      : 완료 %d, 실패 %d, 시간 초과 %d (추적 %d건)%n",
+                lettersReady.get(), lettersFailed.get(), lettersTimedOut.get(), finished);
+        System.out.println("편지 도착 : " + summary(letterLatencies));
+        System.out.println("포화도 (1초 표본, 평균 / 최대):");
+        saturation.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> System.out.printf("  %-45s %8.1f / %8.1f%n",
+                        entry.getKey(), entry.getValue().mean(), entry.getValue().max()));
+        System.out.printf("성공률    : %.1f%%%n", successRate * 100);
+        System.out.println("==========================================================");
+
+        boolean passed = true;
+        if (maxLetterP95Ms > 0 && letterP95 > maxLetterP95Ms) {
+            System.err.println(">>> 기준 초과: 편지 도착 p95 " + letterP95 + "ms > " + maxLetterP95Ms + "ms");
+            passed = false;
+        }
+        if (successRate < minSuccessRate) {
+            System.err.printf(">>> 기준 미달: 성공률 %.1f%% < %.1f%%%n", successRate * 100, minSuccessRate * 100);
+            passed = false;
+        }
+        return passed;
+    }
+
+    private HttpRequest post(String path, String token, Map<String, String> body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return request.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // 매번 다른 일기 (임베딩 캐시에 전부 걸리지 않도록 번호 포함)
+    private String diary() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder diary = new StringBuilder("부하 테스트 일기 #").append(random.nextLong(1_000_000_000L)).append(". ");
+        for (int i = 0; i < 3; i++) {
+            diary.append(DIARY_SENTENCES[random.nextInt(DIARY_SENTENCES.length)]).append(' ');
+        }
+        return diary.toString().trim();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static String summary(List<Long> samples) {
+        if (samples.isEmpty()) return "표본 없음";
+        return "p50 " + percentile(samples, 0.50) + "ms, p95 " + percentile(samples, 0.95)
+                + "ms, p99 " + percentile(samples, 0.99) + "ms, 최대 " + percentile(samples, 1.0) + "ms";
+    }
+
+    private static long percentile(List<Long> samples, double quantile) {
+        List<Long> sorted;
+        synchronized (samples) {
+            if (samples.isEmpty()) return 0;
+            sorted = new ArrayList<>(samples);
+        }
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.min(sorted.size() - 1, Math.max(0, index)));
+    }
+
+    // 지표 하나의 평균 / 최대
+    private static final class Saturation {
+        private long count;
+        private double sum;
+        private double max;
+
+        synchronized void add(double value) {
+            count++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        synchronized double mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        synchronized double max() {
+            return max;
+        }
+    }
+}
@@ -1,35 +1,14 @@
 package letter5700;
 
-import letter5700.entity.Member;
-import letter5700.repository.MemberRepository;
-import letter5700.service.RagService;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 
+// 시작 시 실행할 작업(테스트 유저, 지식 동기화 등)은 config.StartupConfig 에 있음
+// (여기에 @Bean 을 두면 @DataJpaTest 같은 슬라이스 테스트에도 끌려 들어옴)
 @SpringBootApplication
 public class SpringbootApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(SpringbootApplication.class, args);
 	}
-
-	// 서버 시작 시 테스트 유저 1명 자동 생성
-	@Bean
-	public CommandLineRunner initData(MemberRepository memberRepository) {
-		return args -> {
-			if (memberRepository.count() == 0) {
-				memberRepository.save(new Member("test", "1234", "테스트유저", "Admin"));
-				System.out.println(">>> 테스트용 회원 생성 완료 (ID: 1)");
-			}
-		};
-	}
-
-	@Bean
-	public CommandLineRunner initRAG(RagService ragService) {
-		return args -> {
-			ragService.initKnowledgeBase(); // 서버 시작 시 지식 DB 구축
-		};
-	}
 }
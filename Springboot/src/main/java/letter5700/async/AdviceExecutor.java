@@ -0,0 +1,102 @@
+package letter5700.async;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 편지 생성 전용 Executor (가상 스레드 기반)
+ * - 작업마다 가상 스레드 하나를 띄우고, 동시 실행 수는 세마포어로 제한
+ * - 실행 중 + 대기 중 작업 합계가 상한을 넘으면 즉시 거절 (RejectedExecutionException)
+ * - 대기열 깊이 / 실행 중 작업 수 / 거절 횟수를 Micrometer 지표로 노출
+ */
+public class AdviceExecutor implements Executor, MeterBinder {
+
+    private final int maxConcurrency;
+    private final int queueCapacity;
+
+    // 실행 중 + 대기 중 작업 합계 상한
+    private final Semaphore admission;
+    // 동시 실행 상한
+    private final Semaphore running;
+
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("advice-", 0).factory();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AdviceExecutor(int maxConcurrency, int queueCapacity) {
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.admission = new Semaphore(maxConcurrency + queueCapacity);
+        this.running = new Semaphore(maxConcurrency, true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admission.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException(
+                    "편지 생성 대기열이 가득 찼습니다. (동시 " + maxConcurrency + "건, 대기 " + queueCapacity + "건)");
+        }
+
+        queued.incrementAndGet();
+        threadFactory.newThread(() -> {
+            try {
+                running.acquireUninterruptibly();
+                queued.decrementAndGet();
+                inFlight.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    running.release();
+                }
+            } finally {
+                admission.release();
+            }
+        }).start();
+    }
+
+    // 지금 바로 받을 수 있는 작업 수
+    public int getRemainingCapacity() {
+        return admission.availablePermits();
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("advice.executor.queued", this, AdviceExecutor::getQueueDepth)
+                .description("실행을 기다리는 편지 생성 작업 수")
+                .register(registry);
+        Gauge.builder("advice.executor.in_flight", this, AdviceExecutor::getInFlight)
+                .description("실행 중인 편지 생성 작업 수")
+                .register(registry);
+        Gauge.builder("advice.executor.capacity", this, AdviceExecutor::getRemainingCapacity)
+                .description("추가로 받을 수 있는 작업 수")
+                .register(registry);
+        FunctionCounter.builder("advice.executor.rejected", this, AdviceExecutor::getRejectedCount)
+                .description("대기열이 가득 차서 거절된 작업 수")
+                .register(registry);
+    }
+}
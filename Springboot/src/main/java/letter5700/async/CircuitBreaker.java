@@ -0,0 +1,152 @@
+package letter5700.async;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회로 차단기 (외부 의존성 하나당 하나)
+ * - CLOSED: 최근 windowSize 건 중 실패율이 기준을 넘으면 OPEN (최소 minCalls 건 이상일 때만)
+ * - OPEN: openDuration 동안 호출하지 않고 바로 실패 (장애 중인 상류에 요청을 쌓지 않음)
+ * - HALF_OPEN: 시험 호출 한 건만 허용, 성공하면 CLOSED / 실패하면 다시 OPEN
+ * - 사용: if (!breaker.tryAcquire()) 바로 실패; 호출 후 onSuccess() / onFailure()
+ *   결과를 판단할 수 없이 끝난 호출(취소 등)은 onCancelled() -> 시험 호출 자리를 돌려줌
+ */
+public class CircuitBreaker implements MeterBinder {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    // 최근 결과 (true = 실패), 원형 버퍼
+    private final boolean[] outcomes;
+    private int recorded;
+    private int failures;
+    private int next;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+
+    public CircuitBreaker(String name, int windowSize, int minCalls, double failureRateThreshold, long openMs) {
+        this.name = name;
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minCalls = Math.min(Math.max(1, minCalls), outcomes.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+    }
+
+    // 호출해도 되는지 (HALF_OPEN 이면 시험 호출 한 건만 true)
+    public synchronized boolean tryAcquire() {
+        switch (currentState()) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probing) break;
+                probing = true;
+                return true;
+            default:
+                break;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            System.out.println(">>> [회로 차단기] " + name + " 복구 (CLOSED)");
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    // 성공도 실패도 아닌 채로 끝난 호출 (취소 / 중단) - 기록은 남기지 않고 HALF_OPEN 시험 호출 자리만 반납
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minCalls
+                && failures >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    // OPEN 시간이 지났으면 HALF_OPEN 으로 전환해서 반환
+    public synchronized State currentState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        return state;
+    }
+
+    // OPEN 이 끝나기까지 남은 시간 (OPEN 이 아니면 0)
+    public synchronized long remainingOpenMillis() {
+        if (currentState() != State.OPEN) return 0;
+        return TimeUnit.NANOSECONDS.toMillis(openNanos - (System.nanoTime() - openedAt));
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) failures--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) failures++;
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        probing = false;
+        opened.incrementAndGet();
+        System.err.println(">>> [회로 차단기] " + name + " 차단 (OPEN, " + TimeUnit.NANOSECONDS.toMillis(openNanos) + "ms)");
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        probing = false;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("circuit.state", this, breaker -> breaker.currentState().ordinal())
+                .tag("name", name)
+                .description("회로 상태 (0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN)")
+                .register(registry);
+        FunctionCounter.builder("circuit.rejected", rejected, AtomicLong::get)
+                .tag("name", name)
+                .description("회로가 열려 있어 바로 실패한 호출 수")
+                .register(registry);
+        FunctionCounter.builder("circuit.opened", opened, AtomicLong::get)
+                .tag("name", name)
+                .description("회로가 열린 횟수")
+                .register(registry);
+    }
+}
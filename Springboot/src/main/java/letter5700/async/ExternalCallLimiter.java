@@ -0,0 +1,109 @@
+package letter5700.async;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 외부 의존성(Qdrant, FCM)별 동시 호출 상한
+ * - 의존성마다 세마포어 하나씩, 허용치를 넘는 호출은 자리가 날 때까지 대기
+ * - try-with-resources 로 사용: try (var permit = limiter.acquire(Dependency.FCM)) { ... }
+ * - 비동기 호출은 acquireAsync 로 받고, 응답 콜백에서 close()
+ * - Gemini 는 분당 한도 + 적응형 상한이 필요해서 GeminiRateLimiter 가 따로 관리
+ */
+public class ExternalCallLimiter implements MeterBinder {
+
+    // acquireAsync 대기용 (자리가 없을 때만 가상 스레드 하나가 대신 기다림)
+    private static final Executor waiter = Executors.newVirtualThreadPerTaskExecutor();
+
+    public enum Dependency {
+        QDRANT, FCM
+    }
+
+    private final Map<Dependency, Semaphore> permits = new EnumMap<>(Dependency.class);
+    private final Map<Dependency, AtomicInteger> waiting = new EnumMap<>(Dependency.class);
+    private final Map<Dependency, AtomicInteger> inFlight = new EnumMap<>(Dependency.class);
+
+    public ExternalCallLimiter(int qdrantLimit, int fcmLimit) {
+        register(Dependency.QDRANT, qdrantLimit);
+        register(Dependency.FCM, fcmLimit);
+    }
+
+    private void register(Dependency dependency, int limit) {
+        permits.put(dependency, new Semaphore(limit, true));
+        waiting.put(dependency, new AtomicInteger());
+        inFlight.put(dependency, new AtomicInteger());
+    }
+
+    // 호출 허가 획득 (자리가 없으면 대기)
+    public Permit acquire(Dependency dependency) {
+        Semaphore semaphore = permits.get(dependency);
+
+        waiting.get(dependency).incrementAndGet();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(dependency + " 호출 대기 중 인터럽트됨", e);
+        } finally {
+            waiting.get(dependency).decrementAndGet();
+        }
+
+        inFlight.get(dependency).incrementAndGet();
+        return new Permit(dependency);
+    }
+
+    /**
+     * 비동기 허가 획득
+     * - 자리가 있으면 바로 완료된 future (스레드 전환 없음)
+     * - 없으면 가상 스레드에서 대기 -> 호출한 스레드(플랫폼 스레드 포함)는 막히지 않음
+     */
+    public CompletableFuture<Permit> acquireAsync(Dependency dependency) {
+        if (permits.get(dependency).tryAcquire()) {
+            inFlight.get(dependency).incrementAndGet();
+            return CompletableFuture.completedFuture(new Permit(dependency));
+        }
+        return CompletableFuture.supplyAsync(() -> acquire(dependency), waiter);
+    }
+
+    // 허가증: close() 시 반납
+    public class Permit implements AutoCloseable {
+        private final Dependency dependency;
+        private boolean released;
+
+        private Permit(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            inFlight.get(dependency).decrementAndGet();
+            permits.get(dependency).release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Dependency dependency : Dependency.values()) {
+            String tag = dependency.name().toLowerCase();
+            Gauge.builder("external.calls.in_flight", inFlight.get(dependency), AtomicInteger::get)
+                    .tag("dependency", tag)
+                    .description("진행 중인 외부 호출 수")
+                    .register(registry);
+            Gauge.builder("external.calls.waiting", waiting.get(dependency), AtomicInteger::get)
+                    .tag("dependency", tag)
+                    .description("동시 호출 상한 때문에 대기 중인 호출 수")
+                    .register(registry);
+        }
+    }
+}
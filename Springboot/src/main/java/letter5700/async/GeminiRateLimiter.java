@@ -0,0 +1,399 @@
+package letter5700.async;
+
+import com.google.genai.errors.ApiException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gemini 호출 전체가 함께 쓰는 적응형 속도 제한기 (편지 생성, 감정 분석, 임베딩, 캐시 등록)
+ * - 분당 요청 수 / 분당 토큰 수 토큰 버킷 (토큰은 요청 전 추정치로 빼고, 응답의 실제 사용량으로 정산)
+ * - 동시 호출 상한은 AIMD: 정상 응답마다 조금씩 늘리고(+1/상한), 429 나 지연 급증(작업별 최근 평균 / 평소 평균) 시 절반으로 줄임
+ * - 429 를 받으면 잠시 모든 호출을 멈춤 (cooldown)
+ * - SharedRateBudget 이 있으면 여러 인스턴스가 하나의 분당 예산을 나눠 씀 (묶음 단위로 빌려 옴)
+ *   빌리는 DB 호출은 lock 밖에서 한 스레드만 하고, 나머지 대기자는 그 결과를 함께 기다림
+ * - 사용: try (var permit = limiter.acquire("advice", 추정 토큰)) { ...; permit.success(실제 토큰); }
+ *         실패는 catch 에서 limiter.onFailure(e)
+ */
+public class GeminiRateLimiter implements MeterBinder {
+
+    // 지연 급증 판단 전 최소 표본 수, 평소 지연 / 최근 지연 EWMA 가중치
+    private static final int BASELINE_WARMUP = 20;
+    private static final double BASELINE_ALPHA = 0.05;
+    private static final double RECENT_ALPHA = 0.3;
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double latencySpikeFactor;
+    private final long cooldownNanos;
+
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+
+    // 공유 예산 (null 이면 인스턴스 단독)
+    private final SharedRateBudget sharedBudget;
+    private final int leaseRequests;
+    private final long leaseTokens;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // 아래 상태는 lock 으로 보호
+    private double concurrencyLimit;
+    private int inFlight;
+    private long pausedUntil;
+    private long lastDecrease;
+    private long leaseWindow = -1;
+    private long leasedRequests;
+    private long leasedTokens;
+    // 공유 예산이 바닥난 분 (다음 분까지 다시 빌리지 않음), 진행 중인 빌리기 (없으면 null)
+    private long exhaustedWindow = -1;
+    private CompletableFuture<Void> leaseInFlight;
+
+    // 작업(operation)별 평소 지연 (지연 급증 판단용)
+    private final Map<String, LatencyBaseline> baselines = new ConcurrentHashMap<>();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+
+    public GeminiRateLimiter(int requestsPerMinute, long tokensPerMinute,
+                             int minConcurrency, int maxConcurrency,
+                             double latencySpikeFactor, long cooldownMs,
+                             SharedRateBudget sharedBudget, int leaseRequests, long leaseTokens) {
+        this.requestBucket = new TokenBucket(requestsPerMinute);
+        this.tokenBucket = new TokenBucket(tokensPerMinute);
+        this.minConcurrency = Math.max(1, minConcurrency);
+        this.maxConcurrency = Math.max(this.minConcurrency, maxConcurrency);
+        this.latencySpikeFactor = latencySpikeFactor;
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+        this.sharedBudget = sharedBudget;
+        this.leaseRequests = Math.min(leaseRequests, requestsPerMinute);
+        this.leaseTokens = Math.min(leaseTokens, tokensPerMinute);
+        this.concurrencyLimit = this.maxConcurrency;
+        this.pausedUntil = System.nanoTime();
+        this.lastDecrease = pausedUntil - cooldownNanos;
+    }
+
+    /**
+     * 호출 허가 획득 (동시 호출 자리 + 분당 요청/토큰 예산이 생길 때까지 대기)
+     * - estimatedTokens: 요청 전 추정 토큰 수 (입력 + 예상 출력)
+     */
+    public Permit acquire(String operation, long estimatedTokens) {
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (pausedUntil - now > 0) {
+                    changed.awaitNanos(pausedUntil - now);
+                    continue;
+                }
+                if (inFlight >= (int) concurrencyLimit) {
+                    changed.await();
+                    continue;
+                }
+
+                requestBucket.refill(now);
+                tokenBucket.refill(now);
+                long waitNanos = Math.max(requestBucket.nanosUntil(1),
+                        tokenBucket.nanosUntil(Math.min(estimatedTokens, tokenBucket.capacity)));
+                if (waitNanos == 0 && sharedBudget != null) {
+                    waitNanos = sharedWaitNanos(estimatedTokens);
+                    if (waitNanos < 0) {
+                        awaitLease(estimatedTokens);
+                        continue;
+                    }
+                }
+                if (waitNanos > 0) {
+                    changed.awaitNanos(waitNanos);
+                    continue;
+                }
+
+                requestBucket.take(1);
+                tokenBucket.take(estimatedTokens);
+                if (sharedBudget != null) {
+                    leasedRequests--;
+                    leasedTokens -= estimatedTokens;
+                }
+                inFlight++;
+                return new Permit(operation, estimatedTokens, now);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Gemini 호출 대기 중 인터럽트됨", e);
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * 공유 예산 확인 (lock 안에서 호출)
+     * - 반환값: 0 이면 바로 진행, 양수면 다음 분까지 남은 시간, -1 이면 더 빌려 와야 함
+     */
+    private long sharedWaitNanos(long estimatedTokens) {
+        long nowMillis = System.currentTimeMillis();
+        long window = nowMillis / 60_000;
+        if (window != leaseWindow) {
+            // 지난 분에 빌린 것은 버림 (초과 사용분은 이번 분으로 넘기지 않음)
+            leaseWindow = window;
+            leasedRequests = 0;
+            leasedTokens = 0;
+        }
+        if (leasedRequests >= 1 && leasedTokens >= estimatedTokens) return 0;
+        if (exhaustedWindow == window) return TimeUnit.MILLISECONDS.toNanos((window + 1) * 60_000 - nowMillis);
+        return -1;
+    }
+
+    /**
+     * 공유 예산 빌리기 (lock 을 잠시 놓고 DB 호출)
+     * - 이미 다른 스레드가 빌리는 중이면 그 결과만 기다림 (같은 인스턴스가 중복으로 빌리지 않도록)
+     * - 돌아오면 lock 을 다시 잡은 상태 -> 호출한 쪽에서 조건을 처음부터 다시 확인
+     */
+    private void awaitLease(long estimatedTokens) {
+        CompletableFuture<Void> lease = leaseInFlight;
+        boolean leader = lease == null;
+        if (leader) {
+            lease = new CompletableFuture<>();
+            leaseInFlight = lease;
+        }
+        long window = leaseWindow;
+        long needTokens = Math.max(0, estimatedTokens - leasedTokens);
+        int needRequests = leasedRequests >= 1 ? 0 : 1;
+
+        lock.unlock();
+        try {
+            if (leader) {
+                leaseShared(window, needRequests, needTokens, lease);
+            } else {
+                lease.join();
+            }
+        } finally {
+            lock.lock();
+        }
+    }
+
+    /**
+     * 공유 예산에서 이번 분 몫 빌려 오기 (lock 밖에서 실행, 결과 반영만 lock 안에서)
+     * - DB 오류 시에는 이번 묶음을 인스턴스 단독 한도만으로 진행 (예산 저장소 장애로 편지 생성이 멈추지 않도록)
+     */
+    private void leaseShared(long window, int needRequests, long needTokens, CompletableFuture<Void> lease) {
+        int grantedRequests = 0;
+        long grantedTokens = 0;
+        try {
+            // 넉넉히 묶음으로 먼저 시도하고, 남은 예산이 묶음보다 적으면 딱 필요한 만큼만
+            if (sharedBudget.tryLease(window, leaseRequests, Math.max(leaseTokens, needTokens))) {
+                grantedRequests = leaseRequests;
+                grantedTokens = Math.max(leaseTokens, needTokens);
+            } else if (sharedBudget.tryLease(window, needRequests, needTokens)) {
+                grantedRequests = needRequests;
+                grantedTokens = needTokens;
+            }
+        } catch (RuntimeException e) {
+            System.err.println(">>> [Gemini 제한] 공유 예산 조회 실패, 인스턴스 한도로 진행: " + e.getMessage());
+            grantedRequests = leaseRequests;
+            grantedTokens = Math.max(leaseTokens, needTokens);
+        }
+
+        lock.lock();
+        try {
+            // 그 사이 분이 바뀌었으면 빌린 결과는 버림 (새 분에서 다시 빌림)
+            if (window == leaseWindow) {
+                if (grantedRequests == 0 && grantedTokens == 0) {
+                    exhaustedWindow = window;
+                } else {
+                    leasedRequests += grantedRequests;
+                    leasedTokens += grantedTokens;
+                }
+            }
+            leaseInFlight = null;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+            lease.complete(null);
+        }
+    }
+
+    /**
+     * 실패 신호 (catch 에서 호출)
+     * - 429(RESOURCE_EXHAUSTED)면 동시 호출 상한 절반 + cooldown 동안 정지
+     * - 그 외 실패는 상한을 바꾸지 않음
+     */
+    public void onFailure(Throwable error) {
+        if (!isThrottled(error)) return;
+
+        throttled.incrementAndGet();
+        lock.lock();
+        try {
+            long resumeAt = System.nanoTime() + cooldownNanos;
+            if (resumeAt - pausedUntil > 0) pausedUntil = resumeAt;
+            decrease();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isThrottled(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ApiException api && api.code() == 429) return true;
+        }
+        return false;
+    }
+
+    // 정상 응답: 최근 지연이 평소보다 크게 늘었으면 감소, 아니면 +1/상한 (한 바퀴 돌면 약 +1)
+    private void onSuccess(String operation, long latencyNanos) {
+        boolean spike = baselines.computeIfAbsent(operation, key -> new LatencyBaseline())
+                .isSpike(latencyNanos, latencySpikeFactor);
+
+        lock.lock();
+        try {
+            if (spike) {
+                decrease();
+            } else {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 곱셈 감소 (cooldown 안에 여러 번 와도 한 번만)
+    private void decrease() {
+        long now = System.nanoTime();
+        if (now - lastDecrease < cooldownNanos) return;
+        lastDecrease = now;
+        concurrencyLimit = Math.max(minConcurrency, concurrencyLimit / 2);
+        decreases.incrementAndGet();
+        System.err.println(">>> [Gemini 제한] 동시 호출 상한 감소 -> " + (int) concurrencyLimit);
+    }
+
+    // 추정 토큰과 실제 토큰의 차이 정산 (적게 썼으면 돌려받고, 많이 썼으면 추가로 차감)
+    private void settle(long estimatedTokens, long actualTokens) {
+        if (actualTokens < 0 || actualTokens == estimatedTokens) return;
+        lock.lock();
+        try {
+            long delta = actualTokens - estimatedTokens;
+            tokenBucket.take(delta);
+            if (sharedBudget != null) leasedTokens -= delta;
+            if (delta < 0) changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 허가증: close() 시 동시 호출 자리 반납
+    public class Permit implements AutoCloseable {
+        private final String operation;
+        private final long estimatedTokens;
+        private final long startedAt;
+        private boolean released;
+
+        private Permit(String operation, long estimatedTokens, long startedAt) {
+            this.operation = operation;
+            this.estimatedTokens = estimatedTokens;
+            this.startedAt = startedAt;
+        }
+
+        // 정상 응답 (actualTokens: 응답의 총 토큰 수, 모르면 -1)
+        public void success(long actualTokens) {
+            onSuccess(operation, System.nanoTime() - startedAt);
+            settle(estimatedTokens, actualTokens);
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release();
+        }
+    }
+
+    // 분당 한도 토큰 버킷 (최대 1분치까지 쌓임, 정산으로 음수가 될 수 있음)
+    private static final class TokenBucket {
+        private final long capacity;
+        private final double perNano;
+        private double available;
+        private long updatedAt = System.nanoTime();
+
+        TokenBucket(long perMinute) {
+            this.capacity = perMinute;
+            this.perNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = perMinute;
+        }
+
+        void refill(long now) {
+            available = Math.min(capacity, available + (now - updatedAt) * perNano);
+            updatedAt = now;
+        }
+
+        long nanosUntil(long amount) {
+            if (available >= amount) return 0;
+            return (long) Math.ceil((amount - available) / perNano);
+        }
+
+        void take(long amount) {
+            available = Math.min(capacity, available - amount);
+        }
+    }
+
+    // 작업별 지연 (평소 = 느린 EWMA, 최근 = 빠른 EWMA)
+    // 한 건만 튀는 것은 무시하고, 최근 평균이 평소의 factor 배를 넘을 때만 급증으로 판단
+    private static final class LatencyBaseline {
+        private double usual;
+        private double recent;
+        private int samples;
+
+        synchronized boolean isSpike(long latencyNanos, double factor) {
+            if (samples == 0) {
+                usual = latencyNanos;
+                recent = latencyNanos;
+            } else {
+                recent += RECENT_ALPHA * (latencyNanos - recent);
+                usual += BASELINE_ALPHA * (latencyNanos - usual);
+            }
+            samples++;
+            return samples > BASELINE_WARMUP && recent > usual * factor;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("gemini.limiter.concurrency_limit", this, limiter -> limiter.concurrencyLimit)
+                .description("현재 Gemini 동시 호출 상한 (AIMD)")
+                .register(registry);
+        Gauge.builder("gemini.limiter.in_flight", this, limiter -> limiter.inFlight)
+                .description("진행 중인 Gemini 호출 수")
+                .register(registry);
+        Gauge.builder("gemini.limiter.waiting", waiting, AtomicInteger::get)
+                .description("동시 호출 상한 / 분당 한도 때문에 대기 중인 호출 수")
+                .register(registry);
+        FunctionCounter.builder("gemini.limiter.throttled", throttled, AtomicLong::get)
+                .description("Gemini 429 응답 수")
+                .register(registry);
+        FunctionCounter.builder("gemini.limiter.decreases", decreases, AtomicLong::get)
+                .description("동시 호출 상한 감소 횟수 (429 또는 지연 급증)")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package letter5700.async;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Postgres 기반 공유 예산 (rate_limit_window 테이블, V3__rate_limit_window.sql)
+ * - (name, 분) 한 행에 모든 인스턴스가 빌려 간 합계를 누적
+ * - INSERT ... ON CONFLICT DO UPDATE ... WHERE 한 문장으로 "한도 안이면 더하기"를 원자적으로 처리
+ * - 한 시간 지난 행은 스케줄러가 따로 정리 (빌리는 경로에서는 INSERT 한 문장만 실행)
+ */
+public class PostgresRateBudget implements SharedRateBudget {
+
+    private static final String LEASE_SQL = """
+            INSERT INTO rate_limit_window (name, window_minute, requests, tokens)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (name, window_minute) DO UPDATE
+            SET requests = rate_limit_window.requests + EXCLUDED.requests,
+                tokens = rate_limit_window.tokens + EXCLUDED.tokens
+            WHERE rate_limit_window.requests + EXCLUDED.requests <= ?
+              AND rate_limit_window.tokens + EXCLUDED.tokens <= ?
+            """;
+
+    private static final String CLEANUP_SQL = "DELETE FROM rate_limit_window WHERE name = ? AND window_minute < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final int requestsPerMinute;
+    private final long tokensPerMinute;
+
+    public PostgresRateBudget(JdbcTemplate jdbcTemplate, String name, int requestsPerMinute, long tokensPerMinute) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+    }
+
+    @Override
+    public boolean tryLease(long window, int requests, long tokens) {
+        int updated = jdbcTemplate.update(LEASE_SQL,
+                name, window, requests, tokens,
+                requestsPerMinute, tokensPerMinute);
+        return updated > 0;
+    }
+
+    // 한 시간 지난 분 행 정리
+    @Scheduled(fixedDelayString = "${gemini.rate-limit.shared-budget.cleanup-ms:600000}")
+    public void cleanup() {
+        long window = System.currentTimeMillis() / 60_000;
+        try {
+            jdbcTemplate.update(CLEANUP_SQL, name, window - 60);
+        } catch (RuntimeException e) {
+            System.err.println(">>> [Gemini 제한] 공유 예산 정리 실패: " + e.getMessage());
+        }
+    }
+}
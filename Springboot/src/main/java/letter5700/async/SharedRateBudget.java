@@ -0,0 +1,15 @@
+package letter5700.async;
+
+/**
+ * 여러 서버 인스턴스가 함께 쓰는 분당 호출 예산 (하나의 API 프로젝트 쿼터)
+ * - 인스턴스는 호출 때마다가 아니라 몇 건 / 몇 토큰씩 묶어서 빌려 감 (lease)
+ * - 빌린 양은 그 분(window)이 끝나면 버림
+ */
+public interface SharedRateBudget {
+
+    /**
+     * window(epoch 기준 분 번호)의 예산에서 requests 건 / tokens 토큰을 빌림
+     * - 전체 한도를 넘으면 false (다음 분까지 대기)
+     */
+    boolean tryLease(long window, int requests, long tokens);
+}
@@ -1,9 +1,84 @@
 package letter5700.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import letter5700.async.AdviceExecutor;
+import letter5700.async.CircuitBreaker;
+import letter5700.async.ExternalCallLimiter;
+import letter5700.async.GeminiRateLimiter;
+import letter5700.async.PostgresRateBudget;
+import letter5700.async.SharedRateBudget;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableAsync // 비동기 기능 활성화
+@EnableScheduling // 편지 생성 작업 큐 폴링 (AdviceJobWorker), 공유 예산 정리 등
 public class AsyncConfig {
-}
\ No newline at end of file
+
+    /**
+     * 편지 생성 전용 Executor (AdviceJobWorker가 작업 큐에서 꺼낸 작업을 실행)
+     * - defaultCandidate = false: 타입만으로는 주입되지 않음 -> @Qualifier("adviceExecutor") 로만 사용
+     * - 그래서 Boot 기본 applicationTaskExecutor 가 그대로 만들어지고, 다른 @Async(MemberDataPurger 등)는 그쪽에서 실행
+     * - 일반 빈 목록에 잡히지 않으므로 지표는 여기서 직접 등록
+     */
+    @Bean(defaultCandidate = false)
+    public AdviceExecutor adviceExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${advice.executor.max-concurrency:8}") int maxConcurrency,
+            @Value("${advice.executor.queue-capacity:100}") int queueCapacity) {
+        AdviceExecutor executor = new AdviceExecutor(maxConcurrency, queueCapacity);
+        executor.bindTo(meterRegistry);
+        return executor;
+    }
+
+    // 외부 의존성별 동시 호출 상한
+    @Bean
+    public ExternalCallLimiter externalCallLimiter(
+            @Value("${external.qdrant.max-concurrency:16}") int qdrantLimit,
+            @Value("${external.fcm.max-concurrency:4}") int fcmLimit) {
+        return new ExternalCallLimiter(qdrantLimit, fcmLimit);
+    }
+
+    // [추가] 여러 인스턴스가 함께 쓰는 분당 예산 (shared-budget.enabled=true 일 때만, 오래된 행은 스케줄러가 정리)
+    @Bean
+    @ConditionalOnProperty(name = "gemini.rate-limit.shared-budget.enabled", havingValue = "true")
+    public PostgresRateBudget geminiRateBudget(
+            JdbcTemplate jdbcTemplate,
+            @Value("${gemini.rate-limit.requests-per-minute:1000}") int requestsPerMinute,
+            @Value("${gemini.rate-limit.tokens-per-minute:1000000}") long tokensPerMinute) {
+        return new PostgresRateBudget(jdbcTemplate, "gemini", requestsPerMinute, tokensPerMinute);
+    }
+
+    // [추가] Gemini 호출 속도 제한 (분당 요청/토큰 + AIMD 동시 호출 상한)
+    // 공유 예산 빈이 있으면 여러 인스턴스가 Postgres 의 분당 예산을 함께 사용
+    @Bean
+    public GeminiRateLimiter geminiRateLimiter(
+            ObjectProvider<SharedRateBudget> sharedBudget,
+            @Value("${gemini.rate-limit.requests-per-minute:1000}") int requestsPerMinute,
+            @Value("${gemini.rate-limit.tokens-per-minute:1000000}") long tokensPerMinute,
+            @Value("${gemini.rate-limit.min-concurrency:1}") int minConcurrency,
+            @Value("${external.gemini.max-concurrency:8}") int maxConcurrency,
+            @Value("${gemini.rate-limit.latency-spike-factor:3.0}") double latencySpikeFactor,
+            @Value("${gemini.rate-limit.cooldown-ms:2000}") long cooldownMs,
+            @Value("${gemini.rate-limit.shared-budget.lease-requests:10}") int leaseRequests,
+            @Value("${gemini.rate-limit.shared-budget.lease-tokens:50000}") long leaseTokens) {
+        return new GeminiRateLimiter(requestsPerMinute, tokensPerMinute, minConcurrency, maxConcurrency,
+                latencySpikeFactor, cooldownMs, sharedBudget.getIfAvailable(), leaseRequests, leaseTokens);
+    }
+
+    // [추가] Gemini 회로 차단기 (최근 window-size 건 중 실패율이 기준을 넘으면 open-ms 동안 호출 차단)
+    @Bean
+    public CircuitBreaker geminiCircuitBreaker(
+            @Value("${gemini.circuit.window-size:20}") int windowSize,
+            @Value("${gemini.circuit.min-calls:10}") int minCalls,
+            @Value("${gemini.circuit.failure-rate:0.5}") double failureRate,
+            @Value("${gemini.circuit.open-ms:30000}") long openMs) {
+        return new CircuitBreaker("gemini", windowSize, minCalls, failureRate, openMs);
+    }
+}
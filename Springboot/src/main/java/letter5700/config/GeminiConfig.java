@@ -0,0 +1,33 @@
+package letter5700.config;
+
+import letter5700.gemini.GeminiTransport;
+import letter5700.gemini.SdkGeminiTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GeminiConfig {
+
+    /**
+     * Gemini 전송 구현
+     * - gemini.transport=sdk (기본): google-genai 클라이언트 (gemini.api.key 필요)
+     * - 부하 테스트(simulation.enabled=true)에서는 simulation 소스셋의 SimulationConfig 가 대신 제공
+     */
+    @Bean
+    @ConditionalOnProperty(name = "simulation.enabled", havingValue = "false", matchIfMissing = true)
+    public GeminiTransport geminiTransport(
+            @Value("${gemini.transport:sdk}") String type,
+            @Value("${gemini.api.key:}") String apiKey) {
+        return switch (type) {
+            case "sdk" -> {
+                if (apiKey.isBlank()) {
+                    throw new IllegalArgumentException("gemini.api.key 가 설정되지 않았습니다.");
+                }
+                yield new SdkGeminiTransport(apiKey);
+            }
+            default -> throw new IllegalArgumentException("지원하지 않는 gemini.transport 값: " + type);
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package letter5700.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import letter5700.async.ExternalCallLimiter;
+import letter5700.push.FirebasePushSender;
+import letter5700.push.LocalPushSender;
+import letter5700.push.PushDispatcher;
+import letter5700.push.PushSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class PushConfig {
+
+    /**
+     * 알림 전송 구현
+     * - fcm.sender=firebase (기본): FCM 멀티캐스트 (resource/firebase-account.json 필요)
+     * - fcm.sender=local: 로그만 남김 (Firebase 없이 개발/테스트 가능)
+     * - 부하 테스트(simulation.enabled=true)에서는 simulation 소스셋의 SimulationConfig 가 대신 제공
+     */
+    @Bean
+    @ConditionalOnProperty(name = "simulation.enabled", havingValue = "false", matchIfMissing = true)
+    public PushSender pushSender(
+            @Value("${fcm.sender:firebase}") String type) {
+        return switch (type) {
+            case "firebase" -> new FirebasePushSender();
+            case "local" -> new LocalPushSender();
+            default -> throw new IllegalArgumentException("지원하지 않는 fcm.sender 값: " + type);
+        };
+    }
+
+    // 알림 발송기 (모아서 전송 + 재시도 + 만료 토큰 차단)
+    @Bean
+    public PushDispatcher pushDispatcher(
+            PushSender pushSender,
+            ExternalCallLimiter callLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${fcm.dispatcher.queue-capacity:10000}") int queueCapacity,
+            @Value("${fcm.dispatcher.batch-size:500}") int batchSize,
+            @Value("${fcm.dispatcher.linger-ms:200}") long lingerMs,
+            @Value("${fcm.dispatcher.max-attempts:4}") int maxAttempts,
+            @Value("${fcm.dispatcher.retry-base-ms:1000}") long retryBaseMs,
+            @Value("${fcm.unregistered-cache.max-size:100000}") long unregisteredCacheSize,
+            @Value("${fcm.unregistered-cache.ttl-days:30}") long unregisteredTtlDays) {
+        return new PushDispatcher(pushSender, callLimiter, meterRegistry, queueCapacity, batchSize, lingerMs,
+                maxAttempts, retryBaseMs, unregisteredCacheSize, Duration.ofDays(unregisteredTtlDays));
+    }
+}
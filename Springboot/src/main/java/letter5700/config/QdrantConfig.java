@@ -1,19 +1,53 @@
 package letter5700.config;
 
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class QdrantConfig {
 
-    @Bean
-    public QdrantClient qdrantClient() {
-        // Docker의 Qdrant gRPC 포트(6334)로 연결
-        return new QdrantClient(
-                QdrantGrpcClient.newBuilder("localhost", 6334, false).build()
-        );
+    /**
+     * 애플리케이션 전체에서 하나만 쓰는 Qdrant 클라이언트 (gRPC 채널 하나를 공유)
+     * - keepalive: 유휴 연결이 중간 장비(NAT, LB)에서 끊기지 않도록 주기적으로 ping
+     * - deadline: 모든 호출에 기본 타임아웃 적용 (응답 없는 Qdrant 때문에 무한 대기하지 않음)
+     * - 빈 종료 시 close() 로 채널까지 정리
+     */
+    @Bean(destroyMethod = "close")
+    public QdrantClient qdrantClient(
+            @Value("${qdrant.host:localhost}") String host,
+            @Value("${qdrant.port:6334}") int port,
+            @Value("${qdrant.use-tls:false}") boolean useTls,
+            @Value("${qdrant.api-key:}") String apiKey,
+            @Value("${qdrant.keepalive-seconds:30}") long keepAliveSeconds,
+            @Value("${qdrant.keepalive-timeout-seconds:10}") long keepAliveTimeoutSeconds,
+            @Value("${qdrant.deadline-ms:10000}") long deadlineMs) {
+        ManagedChannelBuilder<?> channelBuilder = ManagedChannelBuilder.forAddress(host, port)
+                .keepAliveTime(keepAliveSeconds, TimeUnit.SECONDS)
+                .keepAliveTimeout(keepAliveTimeoutSeconds, TimeUnit.SECONDS)
+                .keepAliveWithoutCalls(true);
+        if (useTls) {
+            channelBuilder.useTransportSecurity();
+        } else {
+            channelBuilder.usePlaintext();
+        }
+        ManagedChannel channel = channelBuilder.build();
+
+        QdrantGrpcClient.Builder grpcClient = QdrantGrpcClient.newBuilder(channel, true)
+                .withTimeout(Duration.ofMillis(deadlineMs));
+        if (!apiKey.isBlank()) {
+            grpcClient.withApiKey(apiKey);
+        }
+
+        System.out.println(">>> Qdrant 연결: " + host + ":" + port + (useTls ? " (TLS)" : ""));
+        return new QdrantClient(grpcClient.build());
     }
 
-}
\ No newline at end of file
+}
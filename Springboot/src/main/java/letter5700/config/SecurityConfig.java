@@ -1,7 +1,9 @@
 package letter5700.config;
 
+import jakarta.servlet.DispatcherType;
 import letter5700.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -20,6 +22,10 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // [추가] Actuator 전용 포트 (management.server.port, 없으면 -1 = 앱 포트에서 함께 서비스)
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     // [1] 비밀번호 암호화 도구 등록
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -34,6 +40,9 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // 🔥 SSE 비동기 디스패치 허용 (최초 요청에서 이미 인증됨)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 🔥 정적 리소스 허용
                         .requestMatchers(
                                 "/css/**",
@@ -49,6 +58,14 @@ public class SecurityConfig {
                                 "/register"
                         ).permitAll()
 
+                        // 🔥 헬스 체크 허용
+                        .requestMatchers("/actuator/health").permitAll()
+
+                        // 🔥 Prometheus 수집 / 지표는 Actuator 전용 포트로 들어온 요청만 허용
+                        // (전용 포트가 없으면 공개 포트에서는 인증 필요)
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+                        .permitAll()
+
                         // 🔥 로그인 API 허용
                         .requestMatchers("/api/auth/**").permitAll()
 
@@ -0,0 +1,42 @@
+package letter5700.config;
+
+import letter5700.entity.Member;
+import letter5700.repository.MemberRepository;
+import letter5700.service.EmotionClassifier;
+import letter5700.service.RagService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 서버 시작 시 실행할 작업
+ * - SpringbootApplication 에서 옮겨 옴 (슬라이스 테스트는 @Configuration 을 스캔하지 않으므로 여기 두면 제외됨)
+ */
+@Configuration
+public class StartupConfig {
+
+	// 서버 시작 시 테스트 유저 1명 자동 생성
+	@Bean
+	public CommandLineRunner initData(MemberRepository memberRepository) {
+		return args -> {
+			if (memberRepository.count() == 0) {
+				memberRepository.save(new Member("test", "1234", "테스트유저", "Admin"));
+				System.out.println(">>> 테스트용 회원 생성 완료 (ID: 1)");
+			}
+		};
+	}
+
+	@Bean
+	public CommandLineRunner initRAG(RagService ragService) {
+		return args -> {
+			ragService.initKnowledgeBase(); // 서버 시작 시 지식 DB 동기화 (바뀐 것만 반영)
+		};
+	}
+
+	@Bean
+	public CommandLineRunner initEmotionClassifier(EmotionClassifier emotionClassifier) {
+		return args -> {
+			emotionClassifier.init(); // 감정 라벨별 중심 벡터 생성 (백그라운드, 준비 전에는 LLM 감정 분석)
+		};
+	}
+}
@@ -0,0 +1,114 @@
+package letter5700.config;
+
+import io.qdrant.client.QdrantClient;
+import letter5700.async.ExternalCallLimiter;
+import letter5700.service.DiaryMemoryService;
+import letter5700.vector.InMemoryVectorStore;
+import letter5700.vector.QdrantCollectionLayout;
+import letter5700.vector.QdrantVectorStore;
+import letter5700.vector.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Configuration
+public class VectorStoreConfig {
+
+    // 조언 지식 컬렉션 (text-embedding-004 = 768차원)
+    private static final String KNOWLEDGE_COLLECTION = "advice_knowledge";
+    private static final String KNOWLEDGE_VECTOR_NAME = "text";
+    public static final int KNOWLEDGE_DIMENSIONS = 768;
+
+    // [추가] 회원별 지난 일기 컬렉션 (같은 임베딩 모델)
+    private static final String DIARY_MEMORY_COLLECTION = "diary_memory";
+
+    /**
+     * [추가] Qdrant 컬렉션 저장 방식 (rag.qdrant.*)
+     * - 기본: int8 스칼라 양자화 벡터만 RAM, 원본 벡터 / payload 는 디스크, 검색 시 2배 후보를 원본으로 rescore
+     * - 설정을 바꾸고 재시작하면 기존 컬렉션도 제자리에서 변경 (QdrantVectorStore.ensureCollection)
+     */
+    @Bean
+    public QdrantCollectionLayout knowledgeCollectionLayout(
+            @Value("${rag.qdrant.quantization:scalar}") String quantization,
+            @Value("${rag.qdrant.quantization.quantile:0.99}") float quantile,
+            @Value("${rag.qdrant.quantization.always-ram:true}") boolean quantizedAlwaysRam,
+            @Value("${rag.qdrant.search.rescore:true}") boolean rescore,
+            @Value("${rag.qdrant.search.oversampling:2.0}") double oversampling,
+            @Value("${rag.qdrant.hnsw.m:16}") int hnswM,
+            @Value("${rag.qdrant.hnsw.ef-construct:100}") int hnswEfConstruct,
+            @Value("${rag.qdrant.hnsw.on-disk:false}") boolean hnswOnDisk,
+            @Value("${rag.qdrant.search.hnsw-ef:128}") int searchHnswEf,
+            @Value("${rag.qdrant.vectors-on-disk:true}") boolean vectorsOnDisk,
+            @Value("${rag.qdrant.payload-on-disk:true}") boolean payloadOnDisk,
+            @Value("${rag.qdrant.keyword-indexes:}") List<String> keywordIndexes) {
+        return new QdrantCollectionLayout(QdrantCollectionLayout.quantization(quantization), quantile,
+                quantizedAlwaysRam, rescore, oversampling, hnswM, hnswEfConstruct, hnswOnDisk, searchHnswEf,
+                vectorsOnDisk, payloadOnDisk, keywordIndexes, null);
+    }
+
+    /**
+     * 지식 검색용 VectorStore
+     * - rag.vector-store=qdrant (기본): Qdrant 컬렉션
+     * - rag.vector-store=memory: 프로세스 내 검색 (Qdrant 없이 개발/테스트 가능)
+     * - 부하 테스트(simulation.enabled=true)에서는 simulation 소스셋의 SimulationConfig 가 대신 제공
+     */
+    @Bean
+    @ConditionalOnProperty(name = "simulation.enabled", havingValue = "false", matchIfMissing = true)
+    public VectorStore knowledgeVectorStore(
+            @Value("${rag.vector-store:qdrant}") String type,
+            QdrantClient qdrantClient,
+            ExternalCallLimiter callLimiter,
+            QdrantCollectionLayout knowledgeCollectionLayout,
+            @Value("${rag.upsert.batch-size:64}") int upsertBatchSize,
+            @Value("${rag.upsert.max-in-flight:4}") int upsertMaxInFlight,
+            @Value("${rag.memory.hnsw-threshold:2000}") int hnswThreshold,
+            @Value("${rag.memory.hnsw-m:16}") int hnswM,
+            @Value("${rag.memory.hnsw-ef-construction:100}") int hnswEfConstruction,
+            @Value("${rag.memory.hnsw-ef-search:64}") int hnswEfSearch,
+            @Value("${rag.memory.snapshot-path:}") String snapshotPath,
+            @Value("${rag.memory.snapshot-delay-ms:1000}") long snapshotDelayMs) {
+        return switch (type) {
+            case "memory" -> new InMemoryVectorStore(KNOWLEDGE_DIMENSIONS, hnswThreshold, hnswM,
+                    hnswEfConstruction, hnswEfSearch, snapshotPath.isBlank() ? null : Path.of(snapshotPath), null,
+                    snapshotDelayMs);
+            case "qdrant" -> new QdrantVectorStore(qdrantClient, callLimiter, KNOWLEDGE_COLLECTION,
+                    KNOWLEDGE_VECTOR_NAME, KNOWLEDGE_DIMENSIONS, upsertBatchSize, upsertMaxInFlight, knowledgeCollectionLayout);
+            default -> throw new IllegalArgumentException("지원하지 않는 rag.vector-store 값: " + type);
+        };
+    }
+
+    /**
+     * [추가] 지난 일기 기억용 VectorStore (회원 = 테넌트)
+     * - diary-memory.vector-store: qdrant | memory (기본값은 rag.vector-store 와 같음)
+     * - Qdrant: 지식 컬렉션과 같은 저장 방식 + memberId 테넌트 인덱스 (회원별 HNSW 그래프)
+     * - memory: memberId 값별 파티션을 전수 비교
+     */
+    @Bean
+    @ConditionalOnProperty(name = "simulation.enabled", havingValue = "false", matchIfMissing = true)
+    public VectorStore diaryMemoryVectorStore(
+            @Value("${diary-memory.vector-store:}") String configuredType,
+            @Value("${rag.vector-store:qdrant}") String knowledgeType,
+            QdrantClient qdrantClient,
+            ExternalCallLimiter callLimiter,
+            QdrantCollectionLayout knowledgeCollectionLayout,
+            @Value("${rag.upsert.batch-size:64}") int upsertBatchSize,
+            @Value("${rag.upsert.max-in-flight:4}") int upsertMaxInFlight,
+            @Value("${diary-memory.snapshot-path:}") String snapshotPath,
+            @Value("${rag.memory.snapshot-delay-ms:1000}") long snapshotDelayMs) {
+        String type = configuredType.isBlank() ? knowledgeType : configuredType;
+        String tenantField = DiaryMemoryService.MEMBER_FIELD;
+        // 회원별 검색은 파티션 전수 비교만 사용 -> 전체 HNSW 는 만들지 않음 (Qdrant m=0 과 같은 의미)
+        return switch (type) {
+            case "memory" -> new InMemoryVectorStore(KNOWLEDGE_DIMENSIONS, Integer.MAX_VALUE, 0, 0, 0,
+                    snapshotPath.isBlank() ? null : Path.of(snapshotPath), tenantField, snapshotDelayMs);
+            case "qdrant" -> new QdrantVectorStore(qdrantClient, callLimiter, DIARY_MEMORY_COLLECTION,
+                    KNOWLEDGE_VECTOR_NAME, KNOWLEDGE_DIMENSIONS, upsertBatchSize, upsertMaxInFlight,
+                    knowledgeCollectionLayout.withTenant(tenantField));
+            default -> throw new IllegalArgumentException("지원하지 않는 diary-memory.vector-store 값: " + type);
+        };
+    }
+}
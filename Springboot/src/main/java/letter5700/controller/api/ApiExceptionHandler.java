@@ -0,0 +1,28 @@
+package letter5700.controller.api;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestControllerAdvice(basePackages = "letter5700.controller.api")
+public class ApiExceptionHandler {
+
+    // 편지 생성 대기 작업이 너무 많은 경우 -> 503 + Retry-After
+    // (기록 저장 트랜잭션도 함께 롤백되므로, 앱은 잠시 후 그대로 다시 보내면 됨)
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleQueueFull(TaskRejectedException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "지금은 편지를 쓰는 사람이 너무 많아요. 잠시 후 다시 시도해주세요.");
+        response.put("reason", "ADVICE_QUEUE_FULL");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(response);
+    }
+}
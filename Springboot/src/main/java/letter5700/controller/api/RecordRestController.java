@@ -1,14 +1,23 @@
 package letter5700.controller.api;
 
+import letter5700.dto.AdviceResponse;
+import letter5700.dto.RecordPageResponse;
 import letter5700.dto.RecordRequest;
 import letter5700.dto.RecordResponse;
+import letter5700.dto.SimilarRecord;
 import letter5700.service.RecordService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,9 +47,48 @@ public class RecordRestController {
     }
 
     // 2. 상세 조회 API (특정 기록 ID로 조회)
+    // [추가] ETag 조건부 요청 지원: If-None-Match 가 같으면 본문 없이 304 (본문 조회/직렬화 생략)
+    // [추가] 내 기록만 (소유자 확인은 getRecordVersion 에서)
     @GetMapping("/{id}")
-    public ResponseEntity<RecordResponse> getRecord(@PathVariable Long id) {
-        return ResponseEntity.ok(recordService.getRecord(id));
+    public ResponseEntity<RecordResponse> getRecord(@AuthenticationPrincipal UserDetails userDetails,
+                                                    @PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RecordService.RecordVersion version = recordService.getRecordVersion(id, userDetails.getUsername());
+        if (matches(ifNoneMatch, version.etag())) {
+            return notModified(version);
+        }
+        return cacheable(version).body(recordService.getRecord(id));
+    }
+
+    // [추가] 편지 조회 API (결과 화면 / 생성 대기 폴링)
+    @GetMapping("/{id}/advice")
+    public ResponseEntity<AdviceResponse> getAdvice(@AuthenticationPrincipal UserDetails userDetails,
+                                                    @PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RecordService.RecordVersion version = recordService.getRecordVersion(id, userDetails.getUsername());
+        if (matches(ifNoneMatch, version.etag())) {
+            return notModified(version);
+        }
+        return cacheable(version).body(recordService.getAdvice(id));
+    }
+
+    // [추가] 편지 생성 스트림 API (SSE)
+    // 생성 중이면 조각(chunk)을 실시간으로, 이미 완성됐으면 done 이벤트 하나로 응답
+    @GetMapping(value = "/{id}/advice/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAdvice(@AuthenticationPrincipal UserDetails userDetails,
+                                   @PathVariable Long id) {
+        return recordService.streamAdvice(id, userDetails.getUsername());
+    }
+
+    // [추가] 비슷한 지난 일기 API (내 기록 중에서, 유사도 순)
+    // 경로: /api/records/{id}/similar?limit=5
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarRecord>> getSimilarRecords(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        return ResponseEntity.ok(recordService.getSimilarRecords(id, userDetails.getUsername(), limit));
     }
 
     // 3. 내 기록 목록 조회 API
@@ -52,6 +100,18 @@ public class RecordRestController {
         return ResponseEntity.ok(recordService.getMemberRecords(userDetails.getUsername()));
     }
 
+    // [추가] 내 기록 목록 (커서 기반 페이지, 요약만)
+    // 경로: /api/records/member/me/page?size=20&cursor=...
+    // 첫 페이지는 cursor 없이, 다음 페이지는 응답의 nextCursor 를 그대로 전달
+    @GetMapping("/member/me/page")
+    public ResponseEntity<RecordPageResponse> getMemberRecordPage(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(recordService.getMemberRecordPage(userDetails.getUsername(), cursor, size));
+    }
+
     // 4. 기록 전체 삭제 API
     // 경로: /api/records/member/me
     @DeleteMapping("/member/me")
@@ -62,6 +122,42 @@ public class RecordRestController {
         return ResponseEntity.ok("모든 기록이 삭제되었습니다.");
     }
 
+    // If-None-Match 에 현재 ETag 가 들어있는지 (여러 개 / * 허용, W/ 는 무시하고 비교)
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        String current = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(current)) return true;
+        }
+        return false;
+    }
+
+    private String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private <T> ResponseEntity<T> notModified(RecordService.RecordVersion version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(version.etag())
+                .cacheControl(cacheControl(version))
+                .build();
+    }
+
+    private ResponseEntity.BodyBuilder cacheable(RecordService.RecordVersion version) {
+        return ResponseEntity.ok()
+                .eTag(version.etag())
+                .cacheControl(cacheControl(version));
+    }
+
+    // 편지가 완성됐으면 1시간 동안 재검증 없이 사용, 생성 중이면 매번 재검증 (바뀌지 않았으면 304)
+    // 사용자 데이터라 브라우저에만 저장 (private)
+    private CacheControl cacheControl(RecordService.RecordVersion version) {
+        return version.adviceReady()
+                ? CacheControl.maxAge(Duration.ofHours(1)).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
+    }
+
     @GetMapping("/ping")
     public String ping() {
         return "pong";
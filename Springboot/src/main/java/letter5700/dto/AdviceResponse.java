@@ -0,0 +1,28 @@
+package letter5700.dto;
+
+import letter5700.entity.DailyRecord;
+import lombok.Getter;
+
+/**
+ * 편지 조회 응답 (결과 화면 / 생성 대기 폴링용)
+ * - 아직 생성 중이면 content 가 null
+ * - status: ready (완성) | pending (생성 중 / 재시도 대기) | failed (재시도를 모두 실패)
+ */
+@Getter
+public class AdviceResponse {
+    private Long recordId;
+    private String emotion;
+    private String content; // AI 조언 내용 (생성 전이면 null)
+    private String status;
+
+    public AdviceResponse(DailyRecord record, boolean failed) {
+        this.recordId = record.getId();
+        this.emotion = record.getEmotion();
+        if (record.getAdvice() != null) {
+            this.content = record.getAdvice().getContent();
+            this.status = "ready";
+        } else {
+            this.status = failed ? "failed" : "pending";
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package letter5700.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 기록 목록 한 페이지 (커서 기반)
+ * - nextCursor 를 다음 요청의 cursor 로 그대로 넘기면 이어서 조회
+ * - nextCursor 가 null 이면 마지막 페이지
+ */
+@Getter
+@AllArgsConstructor
+public class RecordPageResponse {
+    private List<RecordSummary> items;
+    private String nextCursor;
+}
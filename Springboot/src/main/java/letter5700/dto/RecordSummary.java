@@ -0,0 +1,31 @@
+package letter5700.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 기록 목록용 요약 (본문/편지 전문 없이)
+ * - DailyRecordRepository 의 JPQL 생성자 표현식으로 바로 만들어짐 (엔티티/편지 로딩 없음)
+ * - 전문은 상세 조회(/api/records/{id})로 필요할 때만 가져감
+ */
+@Getter
+public class RecordSummary {
+
+    // 미리보기 길이 (글자 수)
+    public static final int PREVIEW_LENGTH = 100;
+
+    private final Long id;
+    private final LocalDateTime date;
+    private final String emotion;
+    private final String preview; // 일기 앞부분
+    private final boolean adviceReady; // 편지 생성 완료 여부
+
+    public RecordSummary(Long id, LocalDateTime date, String emotion, String preview, Boolean adviceReady) {
+        this.id = id;
+        this.date = date;
+        this.emotion = emotion;
+        this.preview = preview;
+        this.adviceReady = Boolean.TRUE.equals(adviceReady);
+    }
+}
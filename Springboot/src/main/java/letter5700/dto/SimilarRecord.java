@@ -0,0 +1,16 @@
+package letter5700.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 비슷한 지난 일기 한 건 (기록 요약 + 유사도)
+ * - 요약은 RecordSummary 그대로 (본문/편지 전문 없이)
+ * - similarity: 코사인 유사도 (1에 가까울수록 비슷함)
+ */
+@Getter
+@AllArgsConstructor
+public class SimilarRecord {
+    private RecordSummary record;
+    private float similarity;
+}
@@ -8,6 +8,7 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "advice")
 @Getter @Setter
 @NoArgsConstructor
 public class Advice {
@@ -17,8 +18,9 @@ public class Advice {
     private Long id;
 
     // 어떤 기록에 대한 조언인지 연결
+    // daily_record 가 파티션 테이블이라 DB FK 는 없음 (삭제는 RecordService 가 advice -> daily_record 순서로 처리)
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "daily_record_id")
+    @JoinColumn(name = "daily_record_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private DailyRecord dailyRecord;
 
     // AI가 생성한 조언 내용 (5700자 등 매우 긴 텍스트) [cite: 109]
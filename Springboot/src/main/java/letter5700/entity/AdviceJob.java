@@ -0,0 +1,68 @@
+package letter5700.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 편지 생성 작업 (DB 기반 작업 큐)
+ * - 일기 저장과 같은 트랜잭션에서 PENDING 으로 등록
+ * - 각 서버의 워커가 SELECT ... FOR UPDATE SKIP LOCKED 로 가져가서 RUNNING + 리스(lease) 설정
+ * - 성공하면 삭제, 실패하면 재시도 예약, 최대 횟수를 넘으면 DEAD (데드레터)
+ */
+@Entity
+@Table(name = "advice_job", indexes = {
+        @Index(name = "idx_advice_job_claim", columnList = "status, available_at"),
+        @Index(name = "idx_advice_job_record", columnList = "daily_record_id")
+})
+@Getter @Setter
+@NoArgsConstructor
+public class AdviceJob {
+
+    public enum Status {
+        PENDING, RUNNING, DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 대상 일기 ID
+    @Column(name = "daily_record_id", nullable = false)
+    private Long recordId;
+
+    // 완료 알림을 받을 FCM 토큰
+    private String fcmToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // 지금까지 시도한 횟수
+    private int attempts;
+
+    // 이 시각 이후에 가져갈 수 있음 (재시도 백오프)
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    // 작업을 가져간 서버와 리스 만료 시각 (만료되면 다른 서버가 다시 가져감)
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+
+    // 마지막 실패 사유
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    public AdviceJob(Long recordId, String fcmToken) {
+        this.recordId = recordId;
+        this.fcmToken = fcmToken;
+        this.status = Status.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = this.createdAt;
+    }
+}
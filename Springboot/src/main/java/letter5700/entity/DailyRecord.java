@@ -8,6 +8,11 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+// 스키마는 Flyway 가 관리 (db/migration) - record_date 기준 월 단위 파티션 테이블, PK (id, record_date)
+@Table(name = "daily_record", indexes = {
+        // 기록 목록 키셋 페이지네이션 (member_id, record_date desc, id desc)
+        @Index(name = "idx_daily_record_member_date", columnList = "member_id, record_date desc, id desc")
+})
 @Getter @Setter
 @NoArgsConstructor
 public class DailyRecord {
@@ -28,7 +33,8 @@ public class DailyRecord {
     // 오늘의 감정 (예: 행복, 불안, 피곤 등)
     private String emotion;
 
-    // 기록 날짜
+    // 기록 날짜 (파티션 키 - 반드시 있어야 하고, 바꾸면 행이 다른 파티션으로 이동함)
+    @Column(nullable = false)
     private LocalDateTime recordDate;
 
     // 이 기록에 대해 생성된 AI 조언 (1:1 관계)
@@ -0,0 +1,42 @@
+package letter5700.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 임베딩 영구 캐시 (EmbeddingCache의 2차 저장소)
+ * - 키: sha256(모델명 + 정규화된 텍스트)
+ * - 값: float 벡터를 little-endian 바이트로 그대로 저장 (768차원 = 3KB)
+ */
+@Entity
+@Table(name = "embedding_cache")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class EmbeddingCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String model;
+
+    private int dimensions;
+
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] vector;
+
+    private LocalDateTime createdAt;
+
+    public EmbeddingCacheEntry(String hash, String model, int dimensions, byte[] vector) {
+        this.hash = hash;
+        this.model = model;
+        this.dimensions = dimensions;
+        this.vector = vector;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -2,9 +2,11 @@ package letter5700.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import letter5700.security.PrincipalCacheEvictor;
 import lombok.*;
 
 @Entity
+@EntityListeners(PrincipalCacheEvictor.class) // [추가] 변경 / 삭제 시 인증 캐시 제거
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Member {
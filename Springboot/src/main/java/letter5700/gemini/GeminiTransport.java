@@ -0,0 +1,27 @@
+package letter5700.gemini;
+
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.CreateCachedContentConfig;
+import com.google.genai.types.EmbedContentResponse;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+
+import java.util.stream.Stream;
+
+/**
+ * Gemini API 호출 추상화 (GeminiService 의 재시도 / 속도 제한 / 회로 차단기 아래에서 실제 전송만 담당)
+ * - SdkGeminiTransport: google-genai 클라이언트 (gemini.transport=sdk, 기본)
+ * - SimulatedGeminiTransport: 프로세스 내 가짜 응답 (부하 테스트용, simulation 소스셋 - 운영 jar 에는 없음)
+ * - 실패는 SDK 와 같은 예외(ApiException 등)로 던짐 -> GeminiException.from 분류가 그대로 동작
+ */
+public interface GeminiTransport {
+
+    GenerateContentResponse generateContent(String model, String prompt, GenerateContentConfig config);
+
+    // 조각 스트림 (다 쓰면 close - try-with-resources 로 사용)
+    Stream<GenerateContentResponse> generateContentStream(String model, String prompt, GenerateContentConfig config);
+
+    EmbedContentResponse embedContent(String model, String text);
+
+    CachedContent createCachedContent(String model, CreateCachedContentConfig config);
+}
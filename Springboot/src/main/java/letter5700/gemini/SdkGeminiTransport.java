@@ -0,0 +1,45 @@
+package letter5700.gemini;
+
+import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.CreateCachedContentConfig;
+import com.google.genai.types.EmbedContentResponse;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// google-genai 공식 라이브러리로 전송
+public class SdkGeminiTransport implements GeminiTransport {
+
+    private final Client client;
+
+    public SdkGeminiTransport(String apiKey) {
+        this.client = Client.builder()
+                .apiKey(apiKey)
+                .build();
+    }
+
+    @Override
+    public GenerateContentResponse generateContent(String model, String prompt, GenerateContentConfig config) {
+        return client.models.generateContent(model, prompt, config);
+    }
+
+    @Override
+    public Stream<GenerateContentResponse> generateContentStream(String model, String prompt, GenerateContentConfig config) {
+        ResponseStream<GenerateContentResponse> stream = client.models.generateContentStream(model, prompt, config);
+        return StreamSupport.stream(stream.spliterator(), false).onClose(stream::close);
+    }
+
+    @Override
+    public EmbedContentResponse embedContent(String model, String text) {
+        return client.models.embedContent(model, text, null);
+    }
+
+    @Override
+    public CachedContent createCachedContent(String model, CreateCachedContentConfig config) {
+        return client.caches.create(model, config);
+    }
+}
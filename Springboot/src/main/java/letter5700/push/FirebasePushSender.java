@@ -0,0 +1,82 @@
+package letter5700.push;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * FCM 전송 (sendEachForMulticast - 요청 한 번에 최대 500 토큰)
+ * - 토큰별 오류 코드를 PushResult 로 변환
+ * - 요청 전체가 실패하면 모든 토큰에 같은 결과
+ */
+public class FirebasePushSender implements PushSender {
+
+    // 서버 켜질 때 Firebase 연동 (resource 의 서비스 계정 키 파일)
+    public FirebasePushSender() {
+        try {
+            var resource = new ClassPathResource("firebase-account.json");
+
+            if (FirebaseApp.getApps().isEmpty()) {
+                FirebaseOptions options = FirebaseOptions.builder()
+                        .setCredentials(GoogleCredentials.fromStream(resource.getInputStream()))
+                        .build();
+                FirebaseApp.initializeApp(options);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public List<PushResult> sendMulticast(String title, String body, List<String> tokens) {
+        MulticastMessage message = MulticastMessage.builder()
+                .addAllTokens(tokens)
+                .setNotification(Notification.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .build())
+                .build();
+
+        try {
+            BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
+            List<PushResult> results = new ArrayList<>(tokens.size());
+            for (SendResponse each : response.getResponses()) {
+                results.add(each.isSuccessful() ? PushResult.SENT : toResult(each.getException()));
+            }
+            return results;
+        } catch (FirebaseMessagingException e) {
+            return Collections.nCopies(tokens.size(), toResult(e));
+        } catch (RuntimeException e) {
+            // 초기화 실패, 네트워크 오류 등
+            return Collections.nCopies(tokens.size(), new PushResult(PushResult.Status.RETRYABLE, e.getMessage()));
+        }
+    }
+
+    private static PushResult toResult(FirebaseMessagingException e) {
+        MessagingErrorCode code = e.getMessagingErrorCode();
+        PushResult.Status status;
+        if (code == null) {
+            status = PushResult.Status.RETRYABLE;
+        } else {
+            status = switch (code) {
+                case UNREGISTERED, SENDER_ID_MISMATCH -> PushResult.Status.UNREGISTERED;
+                case UNAVAILABLE, INTERNAL, QUOTA_EXCEEDED -> PushResult.Status.RETRYABLE;
+                default -> PushResult.Status.FAILED;
+            };
+        }
+        return new PushResult(status, code + ": " + e.getMessage());
+    }
+}
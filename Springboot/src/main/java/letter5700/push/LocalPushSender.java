@@ -0,0 +1,28 @@
+package letter5700.push;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Firebase 없이 쓰는 대체 전송 (fcm.sender=local)
+ * - 실제로 보내지 않고 로그만 남김
+ * - 토큰 접두어로 실패를 흉내낼 수 있음: "unregistered-" -> UNREGISTERED, "unavailable-" -> RETRYABLE
+ */
+public class LocalPushSender implements PushSender {
+
+    @Override
+    public List<PushResult> sendMulticast(String title, String body, List<String> tokens) {
+        List<PushResult> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (token.startsWith("unregistered-")) {
+                results.add(new PushResult(PushResult.Status.UNREGISTERED, "UNREGISTERED (local)"));
+            } else if (token.startsWith("unavailable-")) {
+                results.add(new PushResult(PushResult.Status.RETRYABLE, "UNAVAILABLE (local)"));
+            } else {
+                results.add(PushResult.SENT);
+            }
+        }
+        System.out.println(">>> [로컬 알림] " + title + " -> " + tokens.size() + "건");
+        return results;
+    }
+}
@@ -0,0 +1,250 @@
+package letter5700.push;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import letter5700.async.ExternalCallLimiter;
+import letter5700.async.ExternalCallLimiter.Dependency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 알림 발송기 (모아서 한 번에 전송)
+ * - enqueue 는 대기열에 넣고 바로 반환 (편지 생성 스레드가 FCM 왕복을 기다리지 않음)
+ * - 발송 스레드가 batchSize 건이 모이거나 첫 건 이후 linger 가 지나면 전송
+ * - 같은 제목/본문끼리 묶어 멀티캐스트 한 번으로 전송, 같은 토큰 중복은 하나로 합침
+ * - RETRYABLE 결과는 지수 백오프(+jitter) 후 다시 대기열로, 최대 maxAttempts 번
+ * - UNREGISTERED 토큰은 캐시에 기억해 두고 이후 알림은 보내지 않음
+ * - 동시 전송 수는 ExternalCallLimiter(FCM)가 제한
+ */
+public class PushDispatcher implements AutoCloseable {
+
+    private final PushSender sender;
+    private final ExternalCallLimiter callLimiter;
+    private final MeterRegistry meterRegistry;
+
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+
+    private final BlockingQueue<PushMessage> queue;
+    // 더 이상 유효하지 않은 토큰 (token -> 사유)
+    private final Cache<String, String> unregistered;
+
+    private final Thread flusher;
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("push-retry").daemon().factory());
+    private volatile boolean running = true;
+
+    public PushDispatcher(PushSender sender, ExternalCallLimiter callLimiter, MeterRegistry meterRegistry,
+                          int queueCapacity, int batchSize, long lingerMs,
+                          int maxAttempts, long retryBaseMs,
+                          long unregisteredCacheSize, Duration unregisteredTtl) {
+        this.sender = sender;
+        this.callLimiter = callLimiter;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.min(Math.max(1, batchSize), PushSender.MAX_TOKENS);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseMs = retryBaseMs;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.unregistered = Caffeine.newBuilder()
+                .maximumSize(unregisteredCacheSize)
+                .expireAfterWrite(unregisteredTtl)
+                .build();
+
+        Gauge.builder("fcm.queue.depth", queue, BlockingQueue::size)
+                .description("전송 대기 중인 알림 수")
+                .register(meterRegistry);
+        Gauge.builder("fcm.unregistered.tokens", unregistered, Cache::estimatedSize)
+                .description("전송을 중단한 토큰 수 (UNREGISTERED)")
+                .register(meterRegistry);
+
+        this.flusher = Thread.ofPlatform().name("push-dispatcher").daemon().start(this::run);
+    }
+
+    /**
+     * 알림 등록 (바로 반환)
+     * - 토큰이 없거나, 이미 UNREGISTERED 로 확인된 토큰이거나, 대기열이 가득 차면 버림
+     */
+    public boolean enqueue(String token, String title, String body) {
+        if (token == null || token.isEmpty()) return false;
+        if (unregistered.getIfPresent(token) != null) {
+            dropped("unregistered");
+            return false;
+        }
+        if (!running || !queue.offer(new PushMessage(token, title, body))) {
+            dropped("queue_full");
+            System.err.println(">>> [알림] 대기열이 가득 차서 버림");
+            return false;
+        }
+        return true;
+    }
+
+    // 발송 스레드: 크기 또는 시간 조건이 되면 전송
+    private void run() {
+        List<PushMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PushMessage first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    PushMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                flush(new ArrayList<>(batch));
+            } catch (InterruptedException e) {
+                if (!running) {
+                    queue.drainTo(batch);
+                    if (!batch.isEmpty()) flush(new ArrayList<>(batch));
+                    return;
+                }
+            } catch (RuntimeException e) {
+                System.err.println(">>> [알림] 전송 중 오류: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // 제목/본문이 같은 것끼리 묶어서 멀티캐스트 (허가를 받은 뒤 가상 스레드에서 전송)
+    private void flush(List<PushMessage> batch) {
+        Map<List<String>, Map<String, PushMessage>> groups = new LinkedHashMap<>();
+        for (PushMessage message : batch) {
+            groups.computeIfAbsent(List.of(message.title(), message.body()), key -> new LinkedHashMap<>())
+                    .putIfAbsent(message.token(), message);
+        }
+
+        for (Map<String, PushMessage> group : groups.values()) {
+            List<PushMessage> messages = new ArrayList<>(group.values());
+            var permit = callLimiter.acquire(Dependency.FCM);
+            Thread.ofVirtual().name("push-send").start(() -> {
+                try (permit) {
+                    send(messages);
+                }
+            });
+        }
+    }
+
+    private void send(List<PushMessage> messages) {
+        PushMessage head = messages.get(0);
+        List<String> tokens = messages.stream().map(PushMessage::token).toList();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<PushResult> results;
+        try {
+            results = sender.sendMulticast(head.title(), head.body(), tokens);
+        } catch (RuntimeException e) {
+            results = Collections.nCopies(tokens.size(), new PushResult(PushResult.Status.RETRYABLE, e.getMessage()));
+        }
+
+        int failures = 0;
+        int retried = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            PushMessage message = messages.get(i);
+            PushResult result = i < results.size() ? results.get(i)
+                    : new PushResult(PushResult.Status.RETRYABLE, "응답 누락");
+            count(result.status());
+
+            switch (result.status()) {
+                case SENT -> {
+                }
+                case UNREGISTERED -> {
+                    failures++;
+                    unregistered.put(message.token(), String.valueOf(result.error()));
+                }
+                case RETRYABLE -> {
+                    failures++;
+                    if (scheduleRetry(message)) retried++;
+                }
+                case FAILED -> {
+                    failures++;
+                    System.err.println(">>> [알림] 전송 실패: " + result.error());
+                }
+            }
+        }
+        if (retried > 0) {
+            System.err.println(">>> [알림] " + retried + "건 재시도 예약");
+        }
+
+        String outcome = failures == 0 ? "success" : failures == messages.size() ? "failure" : "partial";
+        sample.stop(Timer.builder("fcm.send")
+                .description("FCM 알림 전송 시간 (멀티캐스트 한 번)")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // 백오프 후 다시 대기열로 (횟수를 다 쓰면 버림)
+    private boolean scheduleRetry(PushMessage message) {
+        PushMessage next = message.nextAttempt();
+        if (next.attempt() >= maxAttempts || !running) {
+            dropped("retries_exhausted");
+            return false;
+        }
+        long ceiling = retryBaseMs << (next.attempt() - 1);
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        try {
+            retryScheduler.schedule(() -> {
+                if (!queue.offer(next)) dropped("queue_full");
+            }, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            dropped("retries_exhausted");
+            return false;
+        }
+    }
+
+    private void count(PushResult.Status status) {
+        Counter.builder("fcm.messages")
+                .description("토큰별 전송 결과 수")
+                .tag("result", status.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void dropped(String reason) {
+        Counter.builder("fcm.dropped")
+                .description("보내지 않고 버린 알림 수")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // 종료 시 남은 알림은 한 번 전송 시도 (재시도 예약분은 버림)
+    @Override
+    public void close() {
+        running = false;
+        retryScheduler.shutdownNow();
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
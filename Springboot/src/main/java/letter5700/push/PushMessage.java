@@ -0,0 +1,16 @@
+package letter5700.push;
+
+/**
+ * 보낼 알림 한 건
+ * - attempt: 지금까지 전송을 시도한 횟수 (재시도 대기열에서 증가)
+ */
+public record PushMessage(String token, String title, String body, int attempt) {
+
+    public PushMessage(String token, String title, String body) {
+        this(token, title, body, 0);
+    }
+
+    PushMessage nextAttempt() {
+        return new PushMessage(token, title, body, attempt + 1);
+    }
+}
@@ -0,0 +1,17 @@
+package letter5700.push;
+
+/**
+ * 토큰 하나에 대한 전송 결과
+ * - SENT: 전송 완료
+ * - RETRYABLE: 일시적 오류 (FCM 장애, 쿼터 초과 등) -> 백오프 후 재시도
+ * - UNREGISTERED: 앱 삭제 / 토큰 만료 -> 이 토큰으로는 다시 보내지 않음
+ * - FAILED: 재시도해도 소용없는 오류 (잘못된 요청 등)
+ */
+public record PushResult(Status status, String error) {
+
+    public enum Status {
+        SENT, RETRYABLE, UNREGISTERED, FAILED
+    }
+
+    public static final PushResult SENT = new PushResult(Status.SENT, null);
+}
@@ -0,0 +1,20 @@
+package letter5700.push;
+
+import java.util.List;
+
+/**
+ * 알림 전송 구현 (fcm.sender 설정으로 선택, PushConfig 참고)
+ * - FirebasePushSender: FCM 멀티캐스트 전송
+ * - LocalPushSender: Firebase 없이 로그만 남기는 대체 구현 (개발/테스트용)
+ */
+public interface PushSender {
+
+    // 한 번에 보낼 수 있는 최대 토큰 수 (FCM 멀티캐스트 = 500)
+    int MAX_TOKENS = 500;
+
+    /**
+     * 같은 제목/본문을 여러 토큰에 전송
+     * - 반환 목록은 tokens 와 같은 순서
+     */
+    List<PushResult> sendMulticast(String title, String body, List<String> tokens);
+}
@@ -0,0 +1,60 @@
+package letter5700.repository;
+
+import letter5700.entity.AdviceJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AdviceJobRepository extends JpaRepository<AdviceJob, Long> {
+
+    // 가져갈 수 있는 작업 조회 + 행 잠금 (다른 서버가 잠근 행은 건너뜀)
+    // - 대기 중이고 재시도 시각이 지난 작업
+    // - 실행 중이지만 리스가 만료된 작업 (가져간 서버가 죽은 경우)
+    @Query(value = """
+            SELECT * FROM advice_job
+            WHERE (status = 'PENDING' AND available_at <= :now)
+               OR (status = 'RUNNING' AND lease_until < :now)
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<AdviceJob> findClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(AdviceJob.Status status);
+
+    // [추가] 리스를 가진 서버만 결과를 반영 (소유자가 같고 리스가 아직 유효한 행만, 행 잠금)
+    // 리스가 만료되어 다른 서버가 가져간 작업은 조회되지 않음
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select j from AdviceJob j where j.id = :id and j.leaseOwner = :owner and j.leaseUntil > :now")
+    Optional<AdviceJob> findLeased(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    // [추가] 성공한 작업 삭제 (리스를 가진 경우만, 0 이면 리스 상실)
+    @Modifying
+    @Query("delete from AdviceJob j where j.id = :id and j.leaseOwner = :owner and j.leaseUntil > :now")
+    int deleteLeased(@Param("id") Long id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    // [추가] 리스 연장 (생성 중 하트비트, 0 이면 리스 상실)
+    @Modifying
+    @Query("""
+            update AdviceJob j set j.leaseUntil = :until
+            where j.id = :id and j.leaseOwner = :owner and j.leaseUntil > :now
+            """)
+    int renewLease(@Param("id") Long id, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // 편지 생성 최종 실패 여부 확인용 (DEAD 작업 존재)
+    boolean existsByRecordIdAndStatus(Long recordId, AdviceJob.Status status);
+
+    // 기록 삭제 시 남아있는 작업 정리용 (DELETE 한 번, 엔티티 로딩 없음)
+    @Modifying
+    @Query("delete from AdviceJob j where j.recordId in :recordIds")
+    int deleteAllByRecordIdIn(@Param("recordIds") Collection<Long> recordIds);
+}
@@ -2,6 +2,16 @@ package letter5700.repository;
 
 import letter5700.entity.Advice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface AdviceRepository extends JpaRepository<Advice, Long> {
-}
\ No newline at end of file
+
+    // [추가] 기록 일괄 삭제용 (DELETE 한 번, 엔티티 로딩 없음)
+    @Modifying
+    @Query("delete from Advice a where a.dailyRecord.id in :recordIds")
+    int deleteAllByRecordIdIn(@Param("recordIds") Collection<Long> recordIds);
+}
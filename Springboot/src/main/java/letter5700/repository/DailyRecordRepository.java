@@ -1,11 +1,103 @@
 package letter5700.repository;
 
+import letter5700.dto.RecordSummary;
 import letter5700.entity.DailyRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface DailyRecordRepository extends JpaRepository<DailyRecord, Long> {
     // [추가] 특정 멤버의 기록을 날짜 내림차순(최신순)으로 조회
     List<DailyRecord> findAllByMemberIdOrderByRecordDateDesc(Long memberId);
+
+    // [추가] 이 회원의 기록인지 (본문을 읽지 않는 존재 확인)
+    boolean existsByIdAndMemberId(Long id, Long memberId);
+
+    // [추가] 기록 목록 첫 페이지 (요약만, 최신순)
+    // 편지는 id 존재 여부만 확인 (본문은 읽지 않음)
+    @Query("""
+            select new letter5700.dto.RecordSummary(
+                r.id, r.recordDate, r.emotion, substring(r.content, 1, 100),
+                case when a.id is not null then true else false end)
+            from DailyRecord r left join r.advice a
+            where r.member.id = :memberId
+            order by r.recordDate desc, r.id desc
+            """)
+    List<RecordSummary> findSummaries(@Param("memberId") Long memberId, Limit limit);
+
+    // [추가] 기록 목록 다음 페이지 - (record_date, id) 키셋 커서 이후부터
+    // OFFSET 없이 인덱스(member_id, record_date, id)를 타고 바로 이어서 읽음
+    @Query("""
+            select new letter5700.dto.RecordSummary(
+                r.id, r.recordDate, r.emotion, substring(r.content, 1, 100),
+                case when a.id is not null then true else false end)
+            from DailyRecord r left join r.advice a
+            where r.member.id = :memberId
+              and (r.recordDate < :date or (r.recordDate = :date and r.id < :id))
+            order by r.recordDate desc, r.id desc
+            """)
+    List<RecordSummary> findSummariesBefore(@Param("memberId") Long memberId,
+                                            @Param("date") LocalDateTime date,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    // [추가] 비슷한 지난 일기 요약 (벡터 검색으로 찾은 ID 중 이 회원의 기록만 - 순서는 호출한 쪽에서 맞춤)
+    @Query("""
+            select new letter5700.dto.RecordSummary(
+                r.id, r.recordDate, r.emotion, substring(r.content, 1, 100),
+                case when a.id is not null then true else false end)
+            from DailyRecord r left join r.advice a
+            where r.member.id = :memberId and r.id in :ids
+            """)
+    List<RecordSummary> findSummariesByIdIn(@Param("memberId") Long memberId, @Param("ids") Collection<Long> ids);
+
+    // [추가] 일괄 삭제용 - 삭제할 기록 한 묶음 (ID + 본문, 본문은 임베딩 캐시 키 계산용)
+    interface RecordContent {
+        Long getId();
+
+        String getContent();
+    }
+
+    @Query("select r.id as id, r.content as content from DailyRecord r where r.member.id = :memberId order by r.id")
+    List<RecordContent> findContentsByMemberId(@Param("memberId") Long memberId, Limit limit);
+
+    // [추가] 기록 일괄 삭제 (DELETE 한 번, 엔티티 로딩 없음 - 편지/작업은 먼저 지워야 함)
+    @Modifying
+    @Query("delete from DailyRecord r where r.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // [추가] 완성된 편지 (감정 + 본문) - 엔티티를 거치지 않고 매번 DB 에서 읽음 (스트림 구독 직후 확인용)
+    interface AdviceResult {
+        String getEmotion();
+
+        String getContent();
+    }
+
+    @Query("select r.emotion as emotion, a.content as content from DailyRecord r join r.advice a where r.id = :id")
+    Optional<AdviceResult> findAdviceResultById(@Param("id") Long id);
+
+    // [추가] ETag 계산용 버전 정보 (본문/편지 전문은 읽지 않음)
+    interface RecordVersion {
+        Long getId();
+
+        String getEmotion();
+
+        Long getAdviceId();
+
+        LocalDateTime getAdviceCreatedAt();
+    }
+
+    @Query("""
+            select r.id as id, r.emotion as emotion, a.id as adviceId, a.createdAt as adviceCreatedAt
+            from DailyRecord r left join r.advice a
+            where r.id = :id and r.member.id = :memberId
+            """)
+    Optional<RecordVersion> findVersionById(@Param("id") Long id, @Param("memberId") Long memberId);
 }
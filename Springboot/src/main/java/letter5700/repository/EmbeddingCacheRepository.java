@@ -0,0 +1,7 @@
+package letter5700.repository;
+
+import letter5700.entity.EmbeddingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheEntry, String> {
+}
@@ -1,5 +1,6 @@
 package letter5700.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,9 @@ import letter5700.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -29,29 +33,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 1. 헤더에서 토큰 추출
         String token = resolveToken(request);
 
-        // 2. 토큰 유효성 검사
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            // 3. 토큰에서 username 추출
-            String username = jwtTokenProvider.getUsername(token);
+        // 2. 토큰 검증 + claim 추출 (서명 검증 한 번)
+        Claims claims = token != null ? jwtTokenProvider.parseClaims(token) : null;
 
-            // 4. DB에서 사용자 정보 로드
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // 3. 사용자 정보: 캐시 -> DB (권한은 토큰의 역할 claim 이 아니라 현재 회원 정보 기준)
+        UserDetails userDetails = claims != null ? loadPrincipal(claims.getSubject()) : null;
 
-            // 5. 인증 객체 생성 및 SecurityContext에 설정 (로그인 처리 완료)
+        if (userDetails != null) {
+            // 4. 인증 객체 생성 및 SecurityContext에 설정 (로그인 처리 완료)
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            System.out.println(">>> [Filter] 토큰 인증 성공: " + username);
-        } else {
-            System.out.println(">>> [Filter] 토큰이 없거나 유효하지 않음! (Token: " + token + ")");
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 토큰 주인의 현재 정보 (PrincipalCache TTL 동안은 캐시, 회원 변경 / 삭제 시 즉시 제거됨)
+     * - 삭제된 회원이면 null -> 토큰이 아직 유효해도 인증하지 않음
+     */
+    private UserDetails loadPrincipal(String username) {
+        try {
+            return principalCache.get(username, name ->
+                    User.withUserDetails(userDetailsService.loadUserByUsername(name)).password("").build());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
     // Request Header에서 토큰 정보 추출 ("Bearer " 접두사 제거)
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
@@ -60,4 +72,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
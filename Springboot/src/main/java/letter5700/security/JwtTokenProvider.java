@@ -1,6 +1,8 @@
 package letter5700.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -14,49 +16,59 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    // 토큰에 담는 역할 claim 이름 (USER, ADMIN 등 - 클라이언트 표시용, 서버 권한은 필터가 회원 정보에서 다시 읽음)
+    public static final String ROLE_CLAIM = "role";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     private Key key;
 
+    // [추가] 서명 검증기 (불변 객체라 한 번 만들어서 모든 요청에서 재사용)
+    private JwtParser parser;
+
     // 1개월 (밀리초 단위: 1000 * 60 * 60 * 24 * 30)
     private final long EXPIRATION_TIME = 1000L * 60 * 60 * 24 * 30;
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     // 1. 토큰 생성 (로그인 성공 시 호출)
-    public String createToken(String username) {
+    public String createToken(String username, String role) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + EXPIRATION_TIME);
 
         return Jwts.builder()
                 .setSubject(username) // 사용자 ID(username)를 담음
+                .claim(ROLE_CLAIM, role) // 발급 시점의 역할 (권한 판단에는 쓰지 않음)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * [추가] 검증 + claim 추출을 한 번에 (서명 검증은 요청당 한 번만)
+     * - 유효하지 않은 토큰이면 null
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null; // 유효하지 않은 토큰
+        }
+    }
+
     // 2. 토큰에서 사용자 ID 추출
     public String getUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     // 3. 토큰 유효성 검증
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false; // 유효하지 않은 토큰
-        }
+        return parseClaims(token) != null;
     }
-}
\ No newline at end of file
+}
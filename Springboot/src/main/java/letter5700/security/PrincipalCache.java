@@ -0,0 +1,51 @@
+package letter5700.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 인증된 사용자 정보 캐시 (username -> UserDetails)
+ * - JwtAuthenticationFilter 가 매 요청마다 DB를 조회하지 않도록 사용
+ * - 크기 상한 + 저장 후 TTL 이 지나면 자동 제거
+ * - 회원 정보가 바뀌거나 삭제되면 invalidate (PrincipalCacheEvictor - Member 엔티티 리스너)
+ *   트랜잭션 안이면 커밋 이후에 한 번 더 제거해서 옛 값이 다시 들어오지 않게 함
+ * - 비밀번호는 담지 않음
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(@Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package letter5700.security;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import letter5700.entity.Member;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Member 엔티티 리스너: 회원 정보가 바뀌거나(역할, 이름 등) 삭제되면 인증 캐시에서 제거
+ * - 어느 서비스에서 바꾸든 JPA 로 반영되면 항상 호출됨 (JPQL 일괄 UPDATE / DELETE 는 리스너를 거치지 않으므로 직접 invalidate)
+ * - Hibernate 가 Spring 빈처럼 생성 (PrincipalCache 가 없는 슬라이스 테스트에서는 아무것도 안 함)
+ */
+public class PrincipalCacheEvictor {
+
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public PrincipalCacheEvictor(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(Member member) {
+        principalCache.ifAvailable(cache -> cache.invalidate(member.getUsername()));
+    }
+}
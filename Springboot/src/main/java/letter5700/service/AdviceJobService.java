@@ -0,0 +1,141 @@
+package letter5700.service;
+
+import letter5700.entity.AdviceJob;
+import letter5700.repository.AdviceJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AdviceJobService {
+
+    private final AdviceJobRepository adviceJobRepository;
+
+    // 리스 유지 시간 (이 시간 안에 끝내지 못하면 다른 서버가 다시 가져감)
+    @Value("${advice.job.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // 최대 시도 횟수 (넘으면 DEAD)
+    @Value("${advice.job.max-attempts:5}")
+    private int maxAttempts;
+
+    // 재시도 대기 시간 (30초 -> 60초 -> 120초 ... 최대 10분)
+    @Value("${advice.job.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    // 대기 중인 작업이 이만큼 쌓이면 새 기록을 받지 않음
+    @Value("${advice.job.max-pending:1000}")
+    private long maxPending;
+
+    // 작업 등록 (일기 저장과 같은 트랜잭션에서 호출)
+    public void enqueue(Long recordId, String fcmToken) {
+        if (adviceJobRepository.countByStatus(AdviceJob.Status.PENDING) >= maxPending) {
+            throw new TaskRejectedException("편지 생성 대기 작업이 " + maxPending + "건을 넘었습니다.");
+        }
+        adviceJobRepository.save(new AdviceJob(recordId, fcmToken));
+    }
+
+    /**
+     * 작업 가져가기
+     * - FOR UPDATE SKIP LOCKED 로 잠근 행만 RUNNING 으로 바꾸고 리스 설정
+     * - 리스 만료로 다시 잡힌 작업이 최대 시도 횟수를 넘었으면 DEAD 처리
+     */
+    public List<AdviceJob> claim(String owner, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<AdviceJob> claimed = new ArrayList<>();
+
+        for (AdviceJob job : adviceJobRepository.findClaimable(now, limit)) {
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(AdviceJob.Status.DEAD);
+                job.setLeaseOwner(null);
+                job.setLeaseUntil(null);
+                System.err.println(">>> [작업큐] 데드레터 처리 (리스 만료 반복, 작업 ID: " + job.getId() + ")");
+                continue;
+            }
+
+            job.setStatus(AdviceJob.Status.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLeaseOwner(owner);
+            job.setLeaseUntil(now.plusSeconds(leaseSeconds));
+            claimed.add(job);
+        }
+        return claimed;
+    }
+
+    /*
+     * 아래 결과 반영 메서드는 모두 리스를 가진 서버(owner)만 성공 (소유자 + 리스 만료 전 조건)
+     * - false = 리스 상실 (만료 후 다른 서버가 가져감) -> 그 서버의 결과가 기준이므로 아무것도 바꾸지 않음
+     */
+
+    // 성공: 작업 삭제
+    public boolean complete(Long jobId, String owner) {
+        return leaseHeld(jobId, owner, adviceJobRepository.deleteLeased(jobId, owner, LocalDateTime.now()) > 0);
+    }
+
+    // [추가] 리스 연장 (생성 중 하트비트)
+    public boolean renew(Long jobId, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        return leaseHeld(jobId, owner,
+                adviceJobRepository.renewLease(jobId, owner, now, now.plusSeconds(leaseSeconds)) > 0);
+    }
+
+    // 실행기에 넣지 못한 경우: 시도 횟수 되돌리고 대기 상태로 반납
+    public boolean release(Long jobId, String owner) {
+        return leaseHeld(jobId, owner, adviceJobRepository.findLeased(jobId, owner, LocalDateTime.now()).map(job -> {
+            job.setStatus(AdviceJob.Status.PENDING);
+            job.setAttempts(Math.max(0, job.getAttempts() - 1));
+            job.setLeaseOwner(null);
+            job.setLeaseUntil(null);
+            return true;
+        }).orElse(false));
+    }
+
+    // [추가] 상류 장애(회로 열림)로 실행하지 못한 경우: 시도 횟수는 세지 않고 delaySeconds 뒤로 미룸
+    public boolean defer(Long jobId, String owner, long delaySeconds, String reason) {
+        return leaseHeld(jobId, owner, adviceJobRepository.findLeased(jobId, owner, LocalDateTime.now()).map(job -> {
+            job.setStatus(AdviceJob.Status.PENDING);
+            job.setAttempts(Math.max(0, job.getAttempts() - 1));
+            job.setLeaseOwner(null);
+            job.setLeaseUntil(null);
+            job.setLastError(reason);
+            job.setAvailableAt(LocalDateTime.now().plusSeconds(delaySeconds));
+            return true;
+        }).orElse(false));
+    }
+
+    // 실패: 재시도 예약 또는 데드레터
+    public boolean fail(Long jobId, String owner, String error) {
+        return leaseHeld(jobId, owner, adviceJobRepository.findLeased(jobId, owner, LocalDateTime.now()).map(job -> {
+            job.setLastError(error);
+            job.setLeaseOwner(null);
+            job.setLeaseUntil(null);
+
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(AdviceJob.Status.DEAD);
+                System.err.println(">>> [작업큐] 데드레터 처리 (작업 ID: " + jobId + ", 사유: " + error + ")");
+                return true;
+            }
+
+            long delay = Math.min(retryBaseSeconds << (job.getAttempts() - 1), 600);
+            job.setStatus(AdviceJob.Status.PENDING);
+            job.setAvailableAt(LocalDateTime.now().plusSeconds(delay));
+            System.err.println(">>> [작업큐] " + delay + "초 후 재시도 (작업 ID: " + jobId + ")");
+            return true;
+        }).orElse(false));
+    }
+
+    private boolean leaseHeld(Long jobId, String owner, boolean held) {
+        if (!held) {
+            System.err.println(">>> [작업큐] 리스 상실 - 결과를 반영하지 않음 (작업 ID: " + jobId + ", 서버: " + owner + ")");
+        }
+        return held;
+    }
+}
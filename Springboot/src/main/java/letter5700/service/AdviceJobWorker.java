@@ -0,0 +1,102 @@
+package letter5700.service;
+
+import letter5700.async.AdviceExecutor;
+import letter5700.entity.AdviceJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 편지 생성 작업 워커 (서버마다 하나씩 동작)
+ * - 주기적으로 DB 작업 큐에서 실행기 여유만큼만 작업을 가져옴 (넘치는 작업은 DB에서 대기)
+ * - 가져온 작업은 adviceExecutor(가상 스레드)에서 실행
+ * - 실행 중인 작업은 하트비트로 리스를 연장 (편지 생성이 리스 시간보다 길어져도 다른 서버가 가져가지 않음)
+ * - 결과 반영은 리스를 가진 경우만 (잃었으면 새로 가져간 서버의 결과가 기준)
+ */
+@Component
+@RequiredArgsConstructor
+public class AdviceJobWorker {
+
+    private final AdviceJobService adviceJobService;
+    private final RecordService recordService;
+    @Qualifier("adviceExecutor")
+    private final AdviceExecutor adviceExecutor;
+    private final GeminiService geminiService;
+
+    // 이 서버를 구분하는 리스 소유자 이름
+    private final String nodeId = "node-" + UUID.randomUUID().toString().substring(0, 8);
+
+    // 지금 이 서버에서 실행 중인 작업 ID (하트비트 대상)
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    // 한 번에 가져올 최대 작업 수
+    @Value("${advice.job.batch-size:10}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${advice.job.poll-interval-ms:1000}")
+    public void poll() {
+        int capacity = Math.min(batchSize, adviceExecutor.getRemainingCapacity());
+        // [추가] Gemini 장애 중에는 작업을 가져가지 않음 (DB 에서 대기), 회복 확인 중에는 한 건만
+        switch (geminiService.circuitState()) {
+            case OPEN -> capacity = 0;
+            case HALF_OPEN -> capacity = Math.min(capacity, 1);
+            default -> {
+            }
+        }
+        if (capacity <= 0) return;
+
+        List<AdviceJob> jobs = adviceJobService.claim(nodeId, capacity);
+        for (AdviceJob job : jobs) {
+            try {
+                adviceExecutor.execute(() -> process(job));
+            } catch (RejectedExecutionException e) {
+                // 그 사이 실행기가 가득 찬 경우 -> 큐로 반납
+                adviceJobService.release(job.getId(), nodeId);
+            }
+        }
+    }
+
+    // [추가] 실행 중인 작업의 리스 연장 (리스 시간보다 충분히 짧은 주기로)
+    // 연장에 실패하면 이미 다른 서버가 가져간 것 -> 하트비트 대상에서 제외 (결과 반영도 거부됨)
+    @Scheduled(fixedDelayString = "${advice.job.heartbeat-ms:60000}")
+    public void heartbeat() {
+        for (Long jobId : running) {
+            try {
+                if (!adviceJobService.renew(jobId, nodeId)) {
+                    running.remove(jobId);
+                }
+            } catch (RuntimeException e) {
+                System.err.println(">>> [작업큐] 리스 연장 실패 (작업 ID: " + jobId + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private void process(AdviceJob job) {
+        running.add(job.getId());
+        try {
+            recordService.generateAdviceAsync(job.getRecordId(), job.getFcmToken());
+            adviceJobService.complete(job.getId(), nodeId);
+        } catch (GeminiException e) {
+            if (e.getReason() == GeminiException.Reason.CIRCUIT_OPEN) {
+                // 이 작업의 잘못이 아니므로 시도 횟수를 쓰지 않고 회로가 닫힐 즈음으로 미룸
+                long delaySeconds = Math.max(1, geminiService.circuitRemainingMillis() / 1000);
+                adviceJobService.defer(job.getId(), nodeId, delaySeconds, e.getMessage());
+                return;
+            }
+            adviceJobService.fail(job.getId(), nodeId, e.getReason() + ": " + e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            adviceJobService.fail(job.getId(), nodeId, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            running.remove(job.getId());
+        }
+    }
+}
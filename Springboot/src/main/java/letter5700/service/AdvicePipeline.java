@@ -0,0 +1,157 @@
+package letter5700.service;
+
+import jakarta.annotation.PreDestroy;
+import letter5700.dto.SimilarRecord;
+import letter5700.vector.FloatVector;
+import letter5700.vector.SearchHit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 편지 생성 전 준비 단계 (작은 스테이지 그래프)
+ *
+ *           ┌──> classify (확신 낮으면 emotion LLM) ──┐
+ *           ├──> search ───────────────────────────────┤
+ *   embed ──┼──> recall (비슷한 지난 일기) ────────────┼─> join -> (편지 생성은 RecordService에서)
+ *           └──> remember (지난 일기 기억에 저장, 합류 안 함)
+ *
+ * - 임베딩 한 번으로 감정 분류(EmotionClassifier), RAG 검색, 지난 일기 검색/저장을 동시에 진행
+ * - 지난 일기는 없거나 실패해도 빈 목록으로 계속 (편지 생성을 막지 않음)
+ * - 감정 LLM 호출은 분류기 확신이 낮을 때만 (대부분의 일기는 모델 왕복 한 번 절약)
+ * - 스테이지마다 타임아웃과 소요 시간 기록
+ */
+@Component
+public class AdvicePipeline {
+
+    private final GeminiService geminiService;
+    private final RagService ragService;
+    private final EmotionClassifier emotionClassifier;
+    private final DiaryMemoryService diaryMemoryService;
+
+    // 스테이지 실행용 가상 스레드 (외부 호출 동시성은 ExternalCallLimiter가 제한)
+    private final ExecutorService stageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Duration emotionTimeout;
+    private final Duration embedTimeout;
+    private final Duration searchTimeout;
+    // 프롬프트에 넣을 지난 일기 수
+    private final int memoryLimit;
+
+    public AdvicePipeline(GeminiService geminiService,
+                          RagService ragService,
+                          EmotionClassifier emotionClassifier,
+                          DiaryMemoryService diaryMemoryService,
+                          @Value("${advice.pipeline.emotion-timeout-ms:30000}") long emotionTimeoutMs,
+                          @Value("${advice.pipeline.embed-timeout-ms:15000}") long embedTimeoutMs,
+                          @Value("${advice.pipeline.search-timeout-ms:5000}") long searchTimeoutMs,
+                          @Value("${diary-memory.limit:3}") int memoryLimit) {
+        this.geminiService = geminiService;
+        this.ragService = ragService;
+        this.emotionClassifier = emotionClassifier;
+        this.diaryMemoryService = diaryMemoryService;
+        this.emotionTimeout = Duration.ofMillis(emotionTimeoutMs);
+        this.embedTimeout = Duration.ofMillis(embedTimeoutMs);
+        this.searchTimeout = Duration.ofMillis(searchTimeoutMs);
+        this.memoryLimit = memoryLimit;
+    }
+
+    // 준비 단계 결과: 감정 + 참고 지식 + 비슷한 지난 일기
+    public record Prepared(String emotion, String knowledgeContext, String memoryContext) {
+    }
+
+    public Prepared prepare(Long recordId, Long memberId, String content) {
+        // (1) 임베딩 - 감정 분류, RAG 검색, 지난 일기 검색/저장이 함께 사용
+        CompletableFuture<FloatVector> embedding = stage(recordId, "embed", embedTimeout,
+                () -> geminiService.createEmbedding(content));
+
+        // (2) 감정 - 임베딩 분류기 우선, 확신이 낮거나 임베딩 실패 시 LLM
+        //     LLM까지 실패하거나 늦어지면 기본값 (편지 생성은 계속 진행)
+        CompletableFuture<String> emotion = embedding
+                .handle((vector, error) -> error == null ? emotionClassifier.classify(vector) : Optional.<String>empty())
+                .thenCompose(label -> label.isPresent()
+                        ? CompletableFuture.completedFuture(label.get())
+                        : stage(recordId, "emotion", emotionTimeout, () -> geminiService.analyzeEmotion(content)))
+                .exceptionally(e -> "평온");
+
+        // (3) RAG 검색
+        CompletableFuture<String> knowledge = embedding
+                .thenCompose(vector -> timed(recordId, "search", searchTimeout,
+                        ragService.searchAsync(vector, 3)))
+                .thenApply(AdvicePipeline::toKnowledgeContext);
+
+        // (4) 비슷한 지난 일기 - 회원 필터 검색 후 DB 에서 요약 조회 (실패하면 없이 진행)
+        CompletableFuture<String> memories = embedding
+                .thenCompose(vector -> timed(recordId, "recall", searchTimeout,
+                        diaryMemoryService.searchAsync(memberId, vector, memoryLimit, recordId)))
+                .thenApplyAsync(hits -> toMemoryContext(diaryMemoryService.load(memberId, hits)), stageExecutor)
+                .exceptionally(e -> toMemoryContext(List.of()));
+
+        // (5) 이번 일기도 기억에 저장 (다음 편지부터 사용, 기다리지 않음)
+        embedding.thenCompose(vector -> timed(recordId, "remember", searchTimeout,
+                        diaryMemoryService.rememberAsync(memberId, recordId, vector)))
+                .exceptionally(e -> null);
+
+        // (6) 합류
+        try {
+            return CompletableFuture.allOf(emotion, knowledge, memories)
+                    .thenApply(done -> new Prepared(emotion.join(), knowledge.join(), memories.join()))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    // 스테이지 하나 실행 (타임아웃 + 소요 시간 로그)
+    private <T> CompletableFuture<T> stage(Long recordId, String name, Duration timeout, Supplier<T> work) {
+        return timed(recordId, name, timeout, CompletableFuture.supplyAsync(work, stageExecutor));
+    }
+
+    // 이미 비동기인 호출(Qdrant 검색 등)은 스레드 없이 그대로 이어 붙임
+    private <T> CompletableFuture<T> timed(Long recordId, String name, Duration timeout, CompletableFuture<T> work) {
+        long start = System.nanoTime();
+
+        return work
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (error == null) {
+                        System.out.println(">>> [파이프라인] " + name + " 완료 " + elapsed + "ms (ID: " + recordId + ")");
+                    } else {
+                        System.err.println(">>> [파이프라인] " + name + " 실패 " + elapsed + "ms (ID: " + recordId + "): " + error);
+                    }
+                });
+    }
+
+    // 검색 결과 -> 프롬프트의 참고 지식 목록 (벤치마크에서도 사용)
+    static String toKnowledgeContext(List<SearchHit> searchResults) {
+        return searchResults.stream()
+                .map(hit -> String.valueOf(hit.payload().get("content")))
+                .collect(Collectors.joining("\n- "));
+    }
+
+    // 지난 일기 -> 프롬프트의 지난 일기 목록 (날짜, 감정, 앞부분)
+    static String toMemoryContext(List<SimilarRecord> records) {
+        if (records.isEmpty()) return "없음";
+        return records.stream()
+                .map(similar -> "- " + similar.getRecord().getDate().toLocalDate()
+                        + " (" + similar.getRecord().getEmotion() + ") " + similar.getRecord().getPreview())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @PreDestroy
+    public void close() {
+        stageExecutor.shutdownNow();
+    }
+}
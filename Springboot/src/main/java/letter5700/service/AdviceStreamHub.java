@@ -0,0 +1,188 @@
+package letter5700.service;
+
+import letter5700.entity.AdviceJob;
+import letter5700.repository.AdviceJobRepository;
+import letter5700.repository.DailyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 편지 생성 스트림 중계소
+ * - 비동기 작업이 만들어내는 조각(chunk)을 recordId 별로 모아둠
+ * - SSE 구독자에게 조각을 그대로 전달 (늦게 들어온 구독자는 지금까지의 내용을 먼저 받음)
+ * - 완료 시 최종 감정/본문을 "done" 이벤트로 보내고 스트림을 정리
+ * - 조각은 생성 중인 서버의 구독자에게만 감 (작업은 어느 서버든 가져갈 수 있음)
+ *   -> 구독 중인 기록은 주기적으로 DB 를 다시 확인해서, 다른 서버가 끝낸 편지도 done / error 로 마무리
+ */
+@Component
+@RequiredArgsConstructor
+public class AdviceStreamHub {
+
+    // 5분 (loading.js 타임아웃과 동일)
+    private static final long EMITTER_TIMEOUT = 1000L * 60 * 5;
+
+    private final DailyRecordRepository recordRepository;
+    private final AdviceJobRepository adviceJobRepository;
+
+    private final Map<Long, LetterStream> streams = new ConcurrentHashMap<>();
+
+    // 생성 중인 편지 하나에 대한 상태
+    private static class LetterStream {
+        private final StringBuilder buffer = new StringBuilder();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private boolean generating;
+    }
+
+    // 생성 시작 알림 (버퍼 초기화)
+    public void open(Long recordId) {
+        LetterStream stream = streams.computeIfAbsent(recordId, id -> new LetterStream());
+        synchronized (stream) {
+            stream.buffer.setLength(0);
+            stream.generating = true;
+        }
+    }
+
+    // 새로 생성된 조각 전달
+    public void publish(Long recordId, String chunk) {
+        LetterStream stream = streams.get(recordId);
+        if (stream == null) return;
+
+        synchronized (stream) {
+            stream.buffer.append(chunk);
+            for (SseEmitter emitter : stream.emitters) {
+                send(stream, emitter, "chunk", Map.of("text", chunk));
+            }
+        }
+    }
+
+    // 생성 완료: 최종 결과 전달 후 모든 구독 종료
+    public void complete(Long recordId, String emotion, String content) {
+        LetterStream stream = streams.remove(recordId);
+        if (stream == null) return;
+
+        synchronized (stream) {
+            for (SseEmitter emitter : stream.emitters) {
+                if (send(stream, emitter, "done", Map.of("emotion", Objects.toString(emotion, ""), "content", content))) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    // 생성 실패: 에러 이벤트 전달 후 모든 구독 종료
+    public void fail(Long recordId, String message) {
+        LetterStream stream = streams.remove(recordId);
+        if (stream == null) return;
+
+        synchronized (stream) {
+            for (SseEmitter emitter : stream.emitters) {
+                if (send(stream, emitter, "error", Map.of("message", message))) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    /**
+     * DB 에 저장된 결과로 스트림 마무리
+     * - 편지가 저장돼 있으면 done, 재시도를 다 써서 작업이 DEAD 면 error
+     * - 아직 생성 중 / 재시도 대기면 그대로 둠
+     */
+    public void settle(Long recordId) {
+        recordRepository.findAdviceResultById(recordId).ifPresentOrElse(
+                result -> complete(recordId, result.getEmotion(), result.getContent()),
+                () -> {
+                    if (adviceJobRepository.existsByRecordIdAndStatus(recordId, AdviceJob.Status.DEAD)) {
+                        fail(recordId, "편지를 만들지 못했어요. 잠시 후 다시 시도해주세요.");
+                    }
+                });
+    }
+
+    /**
+     * 구독 중인 스트림 점검 (advice.stream.recheck-ms 마다)
+     * - 하트비트(SSE 주석)로 연결 유지 + 끊긴 구독자 정리
+     * - 다른 서버에서 끝났거나 최종 실패한 편지는 DB 결과로 마무리
+     */
+    @Scheduled(fixedDelayString = "${advice.stream.recheck-ms:2000}")
+    public void recheck() {
+        List<Long> watched = new ArrayList<>();
+        streams.forEach((recordId, stream) -> {
+            synchronized (stream) {
+                for (SseEmitter emitter : stream.emitters) {
+                    heartbeat(stream, emitter);
+                }
+                if (!stream.emitters.isEmpty()) watched.add(recordId);
+            }
+        });
+        for (Long recordId : watched) {
+            try {
+                settle(recordId);
+            } catch (RuntimeException e) {
+                System.err.println(">>> [스트림] 편지 상태 확인 실패 (ID: " + recordId + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 구독 등록
+     * - 이미 생성된 내용이 있으면 하나의 chunk로 먼저 보내줌
+     * - 아직 생성이 시작되지 않았으면 open() 될 때까지 대기
+     */
+    public SseEmitter subscribe(Long recordId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT);
+        LetterStream stream = streams.computeIfAbsent(recordId, id -> new LetterStream());
+
+        synchronized (stream) {
+            stream.emitters.add(emitter);
+            if (!stream.buffer.isEmpty()) {
+                send(stream, emitter, "chunk", Map.of("text", stream.buffer.toString()));
+            }
+        }
+
+        Runnable cleanup = () -> {
+            stream.emitters.remove(emitter);
+            // 생성이 시작되지도 않았는데 구독자도 없으면 빈 스트림 정리
+            synchronized (stream) {
+                if (!stream.generating && stream.emitters.isEmpty()) {
+                    streams.remove(recordId, stream);
+                }
+            }
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(e -> cleanup.run());
+
+        return emitter;
+    }
+
+    private void heartbeat(LetterStream stream, SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("keepalive"));
+        } catch (IOException | IllegalStateException e) {
+            stream.emitters.remove(emitter);
+        }
+    }
+
+    // 개행이 섞인 본문도 안전하게 보내기 위해 JSON으로 감싸서 전송
+    private boolean send(LetterStream stream, SseEmitter emitter, String event, Map<String, String> data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 떠난 경우
+            stream.emitters.remove(emitter);
+            return false;
+        }
+    }
+}
@@ -45,6 +45,6 @@ public class AuthService {
         }
 
         // 인증 성공 시 토큰 생성
-        return jwtTokenProvider.createToken(member.getUsername());
+        return jwtTokenProvider.createToken(member.getUsername(), member.getRole() != null ? member.getRole() : "USER");
     }
 }
\ No newline at end of file
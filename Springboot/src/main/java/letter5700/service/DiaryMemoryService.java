@@ -0,0 +1,154 @@
+package letter5700.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import letter5700.dto.RecordSummary;
+import letter5700.dto.SimilarRecord;
+import letter5700.repository.DailyRecordRepository;
+import letter5700.vector.FloatVector;
+import letter5700.vector.SearchHit;
+import letter5700.vector.VectorPoint;
+import letter5700.vector.VectorStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 회원별 지난 일기 기억 (diary_memory 컬렉션)
+ * - 편지 생성 때 만든 일기 임베딩을 버리지 않고 저장 (포인트 ID = 기록 ID 로 만든 UUID -> 재시도해도 중복 없음)
+ * - 검색은 항상 memberId 필터 (Qdrant 테넌트 인덱스) -> 다른 회원의 일기는 후보에도 오르지 않음
+ * - 본문은 벡터 저장소에 두지 않고, 찾은 기록 ID 로 DB 에서 요약만 조회
+ */
+@Service
+@RequiredArgsConstructor
+public class DiaryMemoryService {
+
+    // 테넌트 구분 payload 필드 (VectorStoreConfig 의 테넌트 인덱스와 같은 이름)
+    public static final String MEMBER_FIELD = "memberId";
+    private static final String RECORD_FIELD = "recordId";
+
+    private final VectorStore diaryMemoryVectorStore;
+    private final DailyRecordRepository recordRepository;
+    private final MeterRegistry meterRegistry;
+
+    // 기록 존재 확인용 (저장소 응답 스레드에서 DB 를 조회하지 않도록)
+    private final ExecutorService dbExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 이보다 덜 비슷한 일기는 기억으로 쓰지 않음
+    @Value("${diary-memory.min-score:0.5}")
+    private float minScore;
+
+    @PostConstruct
+    public void init() {
+        // 서버 시작 시 컬렉션이 없으면 자동 생성
+        diaryMemoryVectorStore.ensureCollection();
+    }
+
+    @PreDestroy
+    public void close() {
+        dbExecutor.shutdownNow();
+    }
+
+    // 기록 ID -> 포인트 ID (항상 같은 값)
+    private static UUID pointId(Long recordId) {
+        return UUID.nameUUIDFromBytes(("diary:" + recordId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 일기 임베딩 저장 (반영 완료는 기다리지 않음)
+     * - 실패는 future 로 전달 (호출한 쪽에서 로그만 남기고 편지 생성은 계속)
+     * - 기록 전체 삭제(forget)와 겹칠 수 있으므로 저장 전후로 기록이 아직 있는지 확인
+     *   저장 전: 이미 지워졌으면 저장하지 않음
+     *   저장 후: 그 사이 지워졌으면 방금 넣은 포인트를 직접 삭제
+     *   (DB 삭제 커밋 -> forget 순서라서, 저장 후 확인 때 기록이 있었다면 forget 이 이 포인트까지 지움)
+     */
+    public CompletableFuture<Void> rememberAsync(Long memberId, Long recordId, FloatVector vector) {
+        VectorPoint point = new VectorPoint(pointId(recordId), vector,
+                Map.of(MEMBER_FIELD, String.valueOf(memberId), RECORD_FIELD, recordId));
+        return CompletableFuture.supplyAsync(() -> recordRepository.existsById(recordId), dbExecutor)
+                .thenCompose(exists -> {
+                    if (!exists) return CompletableFuture.completedFuture(null);
+                    return timed("diary.memory.upsert", () -> diaryMemoryVectorStore.upsertAsync(List.of(point), false))
+                            .thenAcceptAsync(result -> {
+                                if (!result.isSuccess()) {
+                                    throw new RuntimeException("Failed to remember diary: " + result.failures().get(0).error());
+                                }
+                                if (!recordRepository.existsById(recordId)) {
+                                    diaryMemoryVectorStore.delete(List.of(point.id()));
+                                    System.out.println(">>> [기억] 저장 중 삭제된 기록 - 포인트 제거 (ID: " + recordId + ")");
+                                }
+                            }, dbExecutor);
+                });
+    }
+
+    /**
+     * 이 회원의 비슷한 지난 일기 (유사도 순 최대 limit 개)
+     * - excludeRecordId: 검색 기준 일기 자신은 제외 (이미 저장돼 있으면 1등으로 나오므로 하나 더 조회)
+     * - 응답 콜백은 저장소 스레드에서 실행되므로 가벼운 필터만 (DB 조회는 load 에서)
+     */
+    public CompletableFuture<List<SearchHit>> searchAsync(Long memberId, FloatVector vector, int limit, Long excludeRecordId) {
+        return timed("diary.memory.search", () -> diaryMemoryVectorStore.searchAsync(
+                vector, limit + 1, MEMBER_FIELD, String.valueOf(memberId)))
+                .thenApply(hits -> hits.stream()
+                        .filter(hit -> hit.score() >= minScore)
+                        .filter(hit -> !recordId(hit).equals(excludeRecordId))
+                        .limit(limit)
+                        .toList());
+    }
+
+    /**
+     * 검색 결과 -> 기록 요약 (검색 순서 유지)
+     * - 그 사이 삭제된 기록이나 다른 회원의 기록은 DB 조회에서 빠짐
+     */
+    public List<SimilarRecord> load(Long memberId, List<SearchHit> hits) {
+        if (hits.isEmpty()) return List.of();
+
+        List<Long> ids = hits.stream().map(DiaryMemoryService::recordId).toList();
+        Map<Long, RecordSummary> summaries = recordRepository.findSummariesByIdIn(memberId, ids).stream()
+                .collect(Collectors.toMap(RecordSummary::getId, Function.identity()));
+
+        List<SimilarRecord> records = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            RecordSummary summary = summaries.get(recordId(hit));
+            if (summary != null) {
+                records.add(new SimilarRecord(summary, hit.score()));
+            }
+        }
+        return records;
+    }
+
+    // 회원의 기억 전부 삭제 (기록 전체 삭제 후 MemberDataPurger 가 호출)
+    public void forget(Long memberId) {
+        diaryMemoryVectorStore.deleteWhere(MEMBER_FIELD, String.valueOf(memberId));
+    }
+
+    // payload 의 기록 ID (Qdrant 는 Long, 메모리 스냅샷 복원 시 Integer 일 수 있음)
+    private static Long recordId(SearchHit hit) {
+        return ((Number) hit.payload().get(RECORD_FIELD)).longValue();
+    }
+
+    // 비동기 호출 시간 기록 (future 가 끝나는 시점까지)
+    private <T> CompletableFuture<T> timed(String name, Supplier<CompletableFuture<T>> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return call.get().whenComplete((result, error) ->
+                sample.stop(Timer.builder(name)
+                        .description("지난 일기 기억 저장소 호출 시간")
+                        .tag("outcome", error == null ? "success" : "failure")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
+}
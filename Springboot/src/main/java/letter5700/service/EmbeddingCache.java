@@ -0,0 +1,148 @@
+package letter5700.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import letter5700.entity.EmbeddingCacheEntry;
+import letter5700.repository.EmbeddingCacheRepository;
+import letter5700.vector.FloatVector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 임베딩 캐시 (GeminiService.createEmbedding 앞단)
+ * - 키: sha256(모델명 + 정규화된 텍스트) -> 같은 문장은 다시 API를 부르지 않음
+ * - 1차: 메모리 (Caffeine, 벡터 바이트 크기 기준으로 상한 관리)
+ * - 2차: Postgres embedding_cache 테이블 (선택, 재시작 후에도 유지)
+ * - 적중/미스/퇴출 횟수를 Micrometer 지표로 노출
+ */
+@Component
+public class EmbeddingCache implements MeterBinder {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Cache<String, FloatVector> memory;
+    private final EmbeddingCacheRepository embeddingCacheRepository;
+    private final boolean persistent;
+
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong persistentMisses = new AtomicLong();
+
+    public EmbeddingCache(EmbeddingCacheRepository embeddingCacheRepository,
+                          @Value("${embedding.cache.max-bytes:33554432}") long maxBytes,
+                          @Value("${embedding.cache.persistent:true}") boolean persistent) {
+        this.embeddingCacheRepository = embeddingCacheRepository;
+        this.persistent = persistent;
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                // 벡터 바이트 + 키(64자 hex) 대략치
+                .weigher((String key, FloatVector vector) -> vector.dimensions() * Float.BYTES + 128)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader로 생성 후 저장
+     * - 동시에 같은 텍스트가 들어오면 API가 두 번 불릴 수 있지만 결과는 동일하므로 허용
+     *   (긴 네트워크 호출 동안 캐시 내부 잠금을 잡지 않기 위함)
+     */
+    public FloatVector get(String model, String text, Supplier<FloatVector> loader) {
+        String key = key(model, text);
+
+        FloatVector cached = memory.getIfPresent(key);
+        if (cached != null) return cached;
+
+        if (persistent) {
+            Optional<FloatVector> stored = loadPersistent(key);
+            if (stored.isPresent()) {
+                persistentHits.incrementAndGet();
+                memory.put(key, stored.get());
+                return stored.get();
+            }
+            persistentMisses.incrementAndGet();
+        }
+
+        FloatVector vector = loader.get();
+        memory.put(key, vector);
+        if (persistent) {
+            savePersistent(key, model, vector);
+        }
+        return vector;
+    }
+
+    /**
+     * [추가] 키 목록으로 캐시 삭제 (회원 데이터 삭제 시 일기 임베딩 정리용)
+     * - 메모리 + DB 모두, DB는 DELETE ... WHERE hash IN (...) 한 번
+     */
+    public void evict(Collection<String> keys) {
+        if (keys.isEmpty()) return;
+
+        memory.invalidateAll(keys);
+        if (persistent) {
+            embeddingCacheRepository.deleteAllByIdInBatch(keys);
+        }
+    }
+
+    private Optional<FloatVector> loadPersistent(String key) {
+        try {
+            return embeddingCacheRepository.findById(key).map(entry -> FloatVector.fromBytes(entry.getVector()));
+        } catch (DataAccessException e) {
+            System.err.println(">>> [임베딩 캐시] DB 조회 실패: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void savePersistent(String key, String model, FloatVector vector) {
+        try {
+            embeddingCacheRepository.save(new EmbeddingCacheEntry(key, model, vector.dimensions(), vector.toBytes()));
+        } catch (DataAccessException e) {
+            // 다른 서버가 먼저 저장한 경우 등 -> 메모리 캐시만으로도 충분
+            System.err.println(">>> [임베딩 캐시] DB 저장 실패: " + e.getMessage());
+        }
+    }
+
+    // sha256(모델명 + "\n" + NFC 정규화/공백 정리된 텍스트)
+    static String key(String model, String text) {
+        String normalized = WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC).strip())
+                .replaceAll(" ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // cache.gets{result=hit|miss}, cache.evictions 등
+        CaffeineCacheMetrics.monitor(registry, memory, "embedding");
+
+        FunctionCounter.builder("embedding.cache.persistent", persistentHits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("DB 캐시에서 찾은 임베딩 수")
+                .register(registry);
+        FunctionCounter.builder("embedding.cache.persistent", persistentMisses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("DB 캐시에도 없어서 API를 호출한 임베딩 수")
+                .register(registry);
+    }
+}
@@ -0,0 +1,210 @@
+package letter5700.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import letter5700.vector.FloatVector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * 임베딩 기반 감정 분류기 (nearest centroid)
+ * - 서버 시작 시 라벨별 예시 문장을 임베딩해서 평균(중심) 벡터를 만들어 둠 (임베딩 캐시 덕분에 재시작 시 API 호출 없음)
+ * - 일기 임베딩(RAG 검색용으로 이미 계산한 것)과 각 중심의 코사인 유사도가 가장 높은 라벨 선택
+ * - 1등 점수가 min-score 미만이거나 2등과 차이가 min-margin 미만이면 결과 없음 -> 호출하는 쪽에서 LLM으로 대체
+ *   (두 값은 보정 전 출발값, emotion.classifier{result} 비율과 LLM 결과와의 일치를 보고 조정)
+ */
+@Component
+public class EmotionClassifier {
+
+    // 감정 라벨별 예시 문장 (키 = GeminiService.EMOTION_LABELS)
+    static final Map<String, List<String>> SEED_EXAMPLES = new LinkedHashMap<>();
+
+    static {
+        SEED_EXAMPLES.put("기쁨", List.of(
+                "오늘 정말 행복한 하루였다. 친구들과 웃으며 맛있는 걸 먹었다.",
+                "시험에 합격했다는 소식을 듣고 너무 기뻐서 소리를 질렀다.",
+                "오랜만에 가족이 다 모여서 즐겁게 이야기했다."));
+        SEED_EXAMPLES.put("슬픔", List.of(
+                "키우던 강아지가 떠났다. 자꾸 눈물이 난다.",
+                "친한 친구와 헤어지게 되어 마음이 너무 아프다.",
+                "아무도 내 마음을 몰라주는 것 같아 서러웠다."));
+        SEED_EXAMPLES.put("불안", List.of(
+                "내일 발표가 있는데 잘할 수 있을지 걱정돼서 잠이 안 온다.",
+                "앞으로 어떻게 될지 모르겠어서 마음이 계속 초조하다.",
+                "건강검진 결과를 기다리는 동안 심장이 두근거렸다."));
+        SEED_EXAMPLES.put("분노", List.of(
+                "팀원이 내 성과를 가로채서 너무 화가 났다.",
+                "무례한 말을 듣고 참을 수 없을 만큼 짜증이 났다.",
+                "약속을 또 어긴 친구에게 화를 냈다."));
+        SEED_EXAMPLES.put("평온", List.of(
+                "조용한 카페에서 책을 읽으며 여유로운 오후를 보냈다.",
+                "특별한 일 없이 잔잔하고 편안한 하루였다.",
+                "산책을 하며 바람을 느끼니 마음이 차분해졌다."));
+        SEED_EXAMPLES.put("우울", List.of(
+                "요즘 아무것도 하기 싫고 모든 게 의미 없게 느껴진다.",
+                "하루 종일 침대에서 나오지 못했다. 마음이 무겁다.",
+                "나는 왜 이것밖에 안 될까 하는 생각이 계속 든다."));
+        SEED_EXAMPLES.put("기대", List.of(
+                "다음 주 여행이 너무 기다려진다.",
+                "새로운 회사에서 시작할 일이 설렌다.",
+                "내일 만날 사람을 생각하니 두근거린다."));
+        SEED_EXAMPLES.put("후회", List.of(
+                "그때 그 말을 하지 말았어야 했는데 계속 마음에 걸린다.",
+                "공부를 미룬 것이 너무 후회된다.",
+                "부모님께 더 잘해드릴걸 하는 생각이 든다."));
+        SEED_EXAMPLES.put("벅참", List.of(
+                "오랫동안 준비한 공연을 무사히 마치고 가슴이 벅차올랐다.",
+                "아이가 처음 걸음마를 떼는 모습을 보고 감격했다.",
+                "많은 사람들의 응원을 받아 마음이 가득 찼다."));
+        SEED_EXAMPLES.put("피로", List.of(
+                "야근이 계속되어 몸도 마음도 지쳤다.",
+                "잠을 제대로 못 자서 하루 종일 피곤했다.",
+                "할 일이 너무 많아서 기운이 하나도 없다."));
+    }
+
+    // 텍스트 -> 임베딩 (운영: GeminiService.createEmbedding, 테스트: 고정 벡터)
+    private final Function<String, FloatVector> embedder;
+    // 1등 라벨 코사인 유사도 하한 (emotion.classifier.min-score)
+    private final double minScore;
+    // 1등과 2등의 최소 차이 - 비슷한 라벨 둘 사이에서 애매하면 LLM 에 맡김 (emotion.classifier.min-margin)
+    private final double minMargin;
+
+    // 예시 임베딩 동시 요청용 (동시 호출 수 / 분당 예산은 GeminiRateLimiter 가 조절)
+    private final ExecutorService embedExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter localCounter;
+    private final Counter fallbackCounter;
+
+    // 라벨 -> 정규화된 중심 벡터 (시작 전/실패 시 비어 있음)
+    private volatile Map<String, FloatVector> centroids = Map.of();
+
+    @Autowired
+    public EmotionClassifier(GeminiService geminiService,
+                             MeterRegistry meterRegistry,
+                             @Value("${emotion.classifier.min-score:0.55}") double minScore,
+                             @Value("${emotion.classifier.min-margin:0.02}") double minMargin) {
+        this(geminiService::createEmbedding, meterRegistry, minScore, minMargin);
+    }
+
+    EmotionClassifier(Function<String, FloatVector> embedder,
+                      MeterRegistry meterRegistry,
+                      double minScore,
+                      double minMargin) {
+        this.embedder = embedder;
+        this.minScore = minScore;
+        this.minMargin = minMargin;
+        this.localCounter = Counter.builder("emotion.classifier")
+                .tag("result", "local")
+                .description("임베딩 분류기로 결정한 감정 수")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("emotion.classifier")
+                .tag("result", "fallback")
+                .description("확신이 낮아 LLM으로 넘긴 감정 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        embedExecutor.shutdownNow();
+    }
+
+    /**
+     * 라벨별 중심 벡터 생성 (서버 시작 시 호출, 완료를 기다리지 않음)
+     * - 예시 문장을 한 번에 모두 요청 (하나씩 차례로 기다리지 않음)
+     * - 예시 임베딩을 정규화 후 평균 -> 다시 정규화
+     * - 준비 전에 들어온 일기와 실패한 경우는 분류기 없이 LLM 사용
+     */
+    public CompletableFuture<Void> init() {
+        Map<String, List<CompletableFuture<FloatVector>>> pending = new LinkedHashMap<>();
+        SEED_EXAMPLES.forEach((label, examples) -> pending.put(label, examples.stream()
+                .map(example -> CompletableFuture.supplyAsync(() -> embedder.apply(example), embedExecutor))
+                .toList()));
+
+        return CompletableFuture.allOf(pending.values().stream()
+                        .flatMap(List::stream)
+                        .toArray(CompletableFuture[]::new))
+                .thenRun(() -> {
+                    Map<String, FloatVector> built = new LinkedHashMap<>();
+                    pending.forEach((label, vectors) -> built.put(label, centroid(vectors)));
+                    centroids = built;
+                    System.out.println(">>> 감정 분류기 준비 완료 (라벨 " + built.size() + "개)");
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    System.err.println(">>> 감정 분류기 준비 실패, LLM 분석만 사용: " + cause.getMessage());
+                    return null;
+                });
+    }
+
+    // 예시 임베딩 평균 (각각 정규화 후 더하고 다시 정규화)
+    private static FloatVector centroid(List<CompletableFuture<FloatVector>> vectors) {
+        float[] sum = null;
+        for (CompletableFuture<FloatVector> vector : vectors) {
+            float[] unit = normalize(vector.join().toArray());
+            if (sum == null) sum = new float[unit.length];
+            for (int i = 0; i < unit.length; i++) {
+                sum[i] += unit[i];
+            }
+        }
+        return FloatVector.wrap(normalize(sum));
+    }
+
+    /**
+     * 일기 임베딩으로 감정 분류
+     * - 확신이 충분하면 라벨, 아니면 empty (LLM 대체)
+     */
+    public Optional<String> classify(FloatVector embedding) {
+        Map<String, FloatVector> current = centroids;
+        if (current.isEmpty()) {
+            fallbackCounter.increment();
+            return Optional.empty();
+        }
+
+        double norm = embedding.norm();
+        String bestLabel = null;
+        double best = -1;
+        double second = -1;
+        for (Map.Entry<String, FloatVector> entry : current.entrySet()) {
+            double score = norm == 0 ? 0 : entry.getValue().dot(embedding) / norm;
+            if (score > best) {
+                second = best;
+                best = score;
+                bestLabel = entry.getKey();
+            } else if (score > second) {
+                second = score;
+            }
+        }
+
+        if (best < minScore || best - second < minMargin) {
+            fallbackCounter.increment();
+            return Optional.empty();
+        }
+        localCounter.increment();
+        return Optional.of(bestLabel);
+    }
+
+    private static float[] normalize(float[] values) {
+        double sum = 0;
+        for (float value : values) {
+            sum += value * value;
+        }
+        float norm = (float) Math.sqrt(sum);
+        if (norm == 0f) return values;
+        for (int i = 0; i < values.length; i++) {
+            values[i] /= norm;
+        }
+        return values;
+    }
+}
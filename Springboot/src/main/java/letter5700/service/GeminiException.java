@@ -0,0 +1,76 @@
+package letter5700.service;
+
+import com.google.genai.errors.ApiException;
+import com.google.genai.errors.GenAiIOException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Gemini 호출 실패 (원인별로 구분)
+ * - RATE_LIMITED / UNAVAILABLE / EMPTY_RESPONSE: 일시적 -> 잠시 후 재시도
+ * - CIRCUIT_OPEN: 상류 장애로 호출 차단 중 -> 호출하지 않고 바로 실패 (작업은 회로가 닫힐 때까지 미룸)
+ * - BAD_REQUEST: 요청 자체 문제 -> 재시도해도 같은 결과
+ */
+public class GeminiException extends RuntimeException {
+
+    public enum Reason {
+        RATE_LIMITED(true),
+        UNAVAILABLE(true),
+        EMPTY_RESPONSE(true),
+        CIRCUIT_OPEN(false),
+        BAD_REQUEST(false);
+
+        private final boolean retryable;
+
+        Reason(boolean retryable) {
+            this.retryable = retryable;
+        }
+    }
+
+    private final Reason reason;
+
+    public GeminiException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public boolean isRetryable() {
+        return reason.retryable;
+    }
+
+    // 상류(Gemini) 상태가 나쁘다는 신호인지 (회로 차단기 실패 집계 대상)
+    public boolean isUpstreamFailure() {
+        return reason == Reason.UNAVAILABLE || reason == Reason.EMPTY_RESPONSE;
+    }
+
+    /**
+     * SDK / 네트워크 예외를 원인별로 분류
+     * - 429 -> RATE_LIMITED, 408 / 5xx -> UNAVAILABLE, 그 외 4xx -> BAD_REQUEST
+     * - 입출력 오류, 타임아웃, 알 수 없는 오류 -> UNAVAILABLE
+     */
+    public static GeminiException from(String operation, Throwable error) {
+        if (error instanceof GeminiException gemini) return gemini;
+
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ApiException api) {
+                Reason reason = api.code() == 429 ? Reason.RATE_LIMITED
+                        : api.code() == 408 || api.code() >= 500 ? Reason.UNAVAILABLE
+                        : Reason.BAD_REQUEST;
+                return new GeminiException(reason, message(operation, reason, api.code() + " " + api.message()), error);
+            }
+            if (e instanceof GenAiIOException || e instanceof IOException || e instanceof TimeoutException) {
+                return new GeminiException(Reason.UNAVAILABLE, message(operation, Reason.UNAVAILABLE, e.getMessage()), error);
+            }
+        }
+        return new GeminiException(Reason.UNAVAILABLE, message(operation, Reason.UNAVAILABLE, error.getMessage()), error);
+    }
+
+    private static String message(String operation, Reason reason, String detail) {
+        return "Gemini " + operation + " 실패 (" + reason + "): " + detail;
+    }
+}
@@ -1,113 +1,531 @@
 package letter5700.service;
 
-import com.google.genai.Client;
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.Content;
 import com.google.genai.types.ContentEmbedding;
+import com.google.genai.types.CreateCachedContentConfig;
 import com.google.genai.types.EmbedContentResponse;
+import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.Part;
+import jakarta.annotation.PreDestroy;
+import letter5700.gemini.GeminiTransport;
+import letter5700.async.CircuitBreaker;
+import letter5700.async.GeminiRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import letter5700.vector.FloatVector;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class GeminiService {
 
-    private final Client client;
+    // [추가] 실제 전송 (SDK 또는 부하 테스트용 시뮬레이션, GeminiConfig 참고)
+    private final GeminiTransport transport;
+    private final GeminiRateLimiter rateLimiter;
+    private final EmbeddingCache embeddingCache;
+    private final MeterRegistry meterRegistry;
 
-    // 생성자에서 API 키를 주입받아 Client 초기화
-    public GeminiService(@Value("${gemini.api.key}") String apiKey) {
-        this.client = Client.builder()
-                .apiKey(apiKey)
-                .build();
+    // [추가] 장애 대응 (gemini.retry.*, gemini.hedge.*, gemini.circuit.*)
+    private final CircuitBreaker circuitBreaker;
+    private final int retryMaxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final long hedgeDelayMs;
+    // 헤지 요청용 가상 스레드
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // [추가] 템플릿 지시문 컨텍스트 캐시 (gemini.context-cache.*)
+    private final boolean contextCacheEnabled;
+    private final Duration contextCacheTtl;
+    private final long contextCacheMinTokens;
+    private final Map<PromptTemplate, ContextCache> contextCaches = new ConcurrentHashMap<>();
+    // 템플릿별 등록 중 표시 (등록하는 동안 다른 요청은 기다리지 않고 systemInstruction 으로 전송)
+    private final Map<PromptTemplate, Boolean> contextCacheRefreshing = new ConcurrentHashMap<>();
+
+    // 편지 생성 모델 (Gemini 2.5 Flash 사용)
+    private static final String ADVICE_MODEL = "gemini-2.5-flash";
+    // 임베딩 모델 (768차원)
+    private static final String EMBEDDING_MODEL = "text-embedding-004";
+    // 예상 출력 토큰 (편지 약 5,700자 / 감정 단어 하나)
+    private static final long ADVICE_OUTPUT_TOKENS = 6000;
+    private static final long EMOTION_OUTPUT_TOKENS = 10;
+
+    public GeminiService(GeminiTransport transport,
+                         GeminiRateLimiter rateLimiter,
+                         CircuitBreaker geminiCircuitBreaker,
+                         EmbeddingCache embeddingCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${gemini.context-cache.enabled:false}") boolean contextCacheEnabled,
+                         @Value("${gemini.context-cache.ttl-minutes:60}") long contextCacheTtlMinutes,
+                         @Value("${gemini.context-cache.min-tokens:1024}") long contextCacheMinTokens,
+                         @Value("${gemini.retry.max-attempts:3}") int retryMaxAttempts,
+                         @Value("${gemini.retry.base-delay-ms:500}") long retryBaseDelayMs,
+                         @Value("${gemini.retry.max-delay-ms:8000}") long retryMaxDelayMs,
+                         @Value("${gemini.hedge.embedding-delay-ms:1500}") long hedgeDelayMs) {
+        this.transport = transport;
+        this.rateLimiter = rateLimiter;
+        this.embeddingCache = embeddingCache;
+        this.meterRegistry = meterRegistry;
+        this.contextCacheEnabled = contextCacheEnabled;
+        this.contextCacheTtl = Duration.ofMinutes(contextCacheTtlMinutes);
+        this.contextCacheMinTokens = contextCacheMinTokens;
+        this.circuitBreaker = geminiCircuitBreaker;
+        this.retryMaxAttempts = Math.max(1, retryMaxAttempts);
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    // 상류 장애로 호출을 막고 있는지 (작업 워커가 새 작업을 가져갈지 판단)
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.currentState();
     }
 
-    public String getAdvice(String userRecord) {
+    public long circuitRemainingMillis() {
+        return circuitBreaker.remainingOpenMillis();
+    }
+
+    @PreDestroy
+    public void close() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    // 템플릿으로 한 번에 생성 (operation: 지표 구분용), 일시적 오류는 재시도
+    private String generate(PromptTemplate template, Map<String, String> variables, String operation) {
+        String prompt = template.render(variables);
+        return retrying(operation, () -> {
+            // 캐시 등록도 Gemini 호출이므로 허가를 받기 전에 설정부터 준비
+            GenerateContentConfig config = generationConfig(template);
+            return call(operation, ADVICE_MODEL, estimateTokens(template, prompt), permit -> {
+                try {
+                    // 1. 라이브러리를 통해 요청 전송 (지시문은 systemInstruction / 컨텍스트 캐시로)
+                    GenerateContentResponse response = transport.generateContent(
+                            ADVICE_MODEL,
+                            prompt,
+                            config
+                    );
+
+                    // 2. 응답 텍스트 추출 (비어 있으면 실패로 처리)
+                    String text = response.text();
+                    if (text == null || text.isBlank()) {
+                        throw new GeminiException(GeminiException.Reason.EMPTY_RESPONSE,
+                                "Gemini " + operation + " 응답이 비어 있습니다.", null);
+                    }
+                    permit.success(totalTokens(response));
+                    return text;
+                } catch (RuntimeException e) {
+                    forgetContextCacheIfMissing(template, config, e);
+                    throw e;
+                }
+            });
+        }, () -> true);
+    }
+
+    // [추가] 스트리밍 편지 생성
+    // 조각이 도착할 때마다 onChunk로 넘겨주고, 끝나면 전체 본문을 반환
+    // - 첫 조각을 보내기 전에 난 오류만 재시도 (이미 구독자에게 보낸 내용이 중복되지 않도록)
+    public String streamAdvice(String userRecord, String knowledgeContext, String memoryContext, Consumer<String> onChunk) {
+        StringBuilder letter = new StringBuilder();
+        String prompt = PromptTemplate.ADVICE.render(adviceVariables(userRecord, knowledgeContext, memoryContext));
+
+        return retrying("advice_stream", () -> {
+            GenerateContentConfig config = generationConfig(PromptTemplate.ADVICE);
+            return call("advice_stream", ADVICE_MODEL, estimateTokens(PromptTemplate.ADVICE, prompt), permit -> {
+                try (Stream<GenerateContentResponse> stream = transport.generateContentStream(
+                        ADVICE_MODEL,
+                        prompt,
+                        config
+                )) {
+                    long usedTokens = -1;
+                    Iterator<GenerateContentResponse> responses = stream.iterator();
+                    while (responses.hasNext()) {
+                        GenerateContentResponse response = responses.next();
+                        // 사용량은 마지막 조각에 누적값으로 옴
+                        long total = totalTokens(response);
+                        if (total >= 0) usedTokens = total;
+
+                        String chunk = response.text();
+                        if (chunk == null || chunk.isEmpty()) continue;
+
+                        letter.append(chunk);
+                        onChunk.accept(chunk);
+                    }
+                    if (letter.toString().isBlank()) {
+                        throw new GeminiException(GeminiException.Reason.EMPTY_RESPONSE,
+                                "Gemini advice_stream 응답이 비어 있습니다.", null);
+                    }
+                    permit.success(usedTokens);
+                    return letter.toString();
+                } catch (RuntimeException e) {
+                    forgetContextCacheIfMissing(PromptTemplate.ADVICE, config, e);
+                    throw e;
+                }
+            });
+        }, () -> letter.isEmpty());
+    }
+
+    /**
+     * [추가] Gemini 호출 한 번 (회로 차단기 -> 속도 제한 -> 호출 -> 결과 기록)
+     * - 회로가 열려 있으면 호출하지 않고 바로 CIRCUIT_OPEN
+     * - 예외는 모두 GeminiException 으로 분류해서 던짐
+     * - 성공/실패로 기록하지 못하고 끝나면 (취소, Error) finally 에서 회로 차단기에 반납 -> HALF_OPEN 에서 멈추지 않음
+     * - gemini.calls{model, operation, outcome} 기록 (outcome: success | 실패 원인)
+     */
+    private <T> T call(String operation, String model, long estimatedTokens,
+                       Function<GeminiRateLimiter.Permit, T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (!circuitBreaker.tryAcquire()) {
+            record(sample, model, operation, "circuit_open");
+            throw new GeminiException(GeminiException.Reason.CIRCUIT_OPEN,
+                    "Gemini " + operation + " 호출 차단 (회로 열림, " + circuitBreaker.remainingOpenMillis() + "ms 남음)", null);
+        }
+
+        boolean settled = false;
+        try (var permit = rateLimiter.acquire(operation, estimatedTokens)) {
+            T result = body.apply(permit);
+            circuitBreaker.onSuccess();
+            settled = true;
+            record(sample, model, operation, "success");
+            return result;
+        } catch (RuntimeException e) {
+            rateLimiter.onFailure(e);
+            GeminiException failure = GeminiException.from(operation, e);
+            // 헤지 경쟁에서 져서 취소된 호출 -> 상류 상태와 무관하므로 회로 차단기에 반영하지 않음
+            if (Thread.currentThread().isInterrupted()) {
+                record(sample, model, operation, "cancelled");
+                throw failure;
+            }
+            // 429 / 잘못된 요청은 상류가 응답은 하고 있다는 뜻 -> 장애로 세지 않음
+            if (failure.isUpstreamFailure()) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            settled = true;
+            record(sample, model, operation, failure.getReason().name().toLowerCase());
+            throw failure;
+        } finally {
+            if (!settled) circuitBreaker.onCancelled();
+        }
+    }
+
+    /**
+     * [추가] 일시적 오류 재시도 (지수 백오프 + full jitter)
+     * - 대기 시간 = 0 ~ min(최대, 기본 * 2^(시도-1)) 사이 무작위 (여러 요청이 같은 순간에 다시 몰리지 않도록)
+     * - canRetry 가 false 면 재시도하지 않음 (스트리밍에서 이미 조각을 보낸 경우)
+     */
+    private <T> T retrying(String operation, Supplier<T> attempt, BooleanSupplier canRetry) {
+        for (int attemptNo = 1; ; attemptNo++) {
+            try {
+                return attempt.get();
+            } catch (GeminiException e) {
+                if (!e.isRetryable() || attemptNo >= retryMaxAttempts || !canRetry.getAsBoolean()) throw e;
+
+                long ceiling = Math.min(retryMaxDelayMs, retryBaseDelayMs << (attemptNo - 1));
+                long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+                System.err.println(">>> [Gemini] " + operation + " " + delay + "ms 후 재시도 ("
+                        + attemptNo + "/" + retryMaxAttempts + "): " + e.getMessage());
+                meterRegistry.counter("gemini.retries", "operation", operation).increment();
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * [추가] 헤지 요청 (임베딩용)
+     * - 허가를 받은 뒤 실제 전송(primary)만 시간을 잼 -> 속도 제한 / 429 cooldown 대기는 꼬리 지연으로 보지 않음
+     * - primary 가 hedgeDelay 안에 끝나지 않으면 hedge(허가를 따로 받는 같은 요청)를 하나 더 보내고 먼저 성공한 결과 사용
+     * - 진 쪽은 취소 (스레드 인터럽트), 둘 다 실패하면 나중 실패를 던짐
+     */
+    private <T> T hedged(String operation, Supplier<T> primary, Supplier<T> hedge) {
+        if (hedgeDelayMs <= 0) return primary.get();
+
+        CompletableFuture<T> primaryResult = new CompletableFuture<>();
+        Future<?> primaryTask = hedgeExecutor.submit(() -> runInto(primary, primaryResult));
         try {
-            // 1. 모델명과 프롬프트 설정 (Gemini 1.5 Flash 사용)
-            String modelName = "gemini-2.5-flash";
-            String prompt = """
-            당신은 '5700 레터'라는 서비스의 AI 조언자입니다.
-            사용자의 일기를 읽고, 그 마음을 깊이 헤아려 약 5,700자 분량(공백 포함)의 매우 긴 편지를 써주세요.
-            
-            [지침]
-            1. 단순한 위로를 넘어, 심리적/철학적 통찰을 제공하세요.
-            2. 문체는 따뜻하고 서정적이며, 때로는 냉철한 분석도 포함하세요.
-            3. 서론-본론(다각도 분석)-결론의 구조를 갖추고 풍부한 문장을 사용하세요.
-            4. 절대 요약하지 말고, 이야기를 풀어서 서술하세요.
-            5. 답변을 작성할 때 문장 앞에 숫자를 붙이는 형태의 번호 매기기를 사용하지 않는다
-            6. 문장을 강조할 때 별표(*)를 이용한 굵게 표시를 사용하지 않는다
-            7. 과도한 장식, 과도한 Markdown 형식, 불필요한 시각적 강조를 피한다
-            
-            [사용자 일기]
-            %s
-            """.formatted(userRecord);
-
-            // 2. 라이브러리를 통해 요청 전송
-            GenerateContentResponse response = client.models.generateContent(
-                    modelName,
-                    prompt,
-                    null
-            );
-
-            // 3. 응답 텍스트 추출
-            return response.text();
+            return primaryResult.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 꼬리 지연 -> 헤지 요청 발송
+        } catch (ExecutionException e) {
+            throw GeminiException.from(operation, e.getCause());
+        } catch (InterruptedException e) {
+            primaryTask.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GeminiException(GeminiException.Reason.UNAVAILABLE, "Gemini " + operation + " 대기 중 인터럽트됨", e);
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "아직 마음을 정리하는 중입니다. 잠시 후 다시 시도해주세요. (Error: " + e.getMessage() + ")";
+        meterRegistry.counter("gemini.hedges", "operation", operation).increment();
+        CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+        Future<?> hedgeTask = hedgeExecutor.submit(() -> runInto(hedge, hedgeResult));
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<T> future : List.of(primaryResult, hedgeResult)) {
+            future.whenComplete((result, error) -> {
+                if (error == null) {
+                    winner.complete(result);
+                } else if (failed.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw GeminiException.from(operation, e.getCause());
+        } finally {
+            // 진 쪽 취소 (이미 끝난 작업에는 영향 없음)
+            primaryTask.cancel(true);
+            hedgeTask.cancel(true);
         }
     }
 
+    private static <T> void runInto(Supplier<T> attempt, CompletableFuture<T> result) {
+        try {
+            result.complete(attempt.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * [추가] 요청 전 토큰 추정 (분당 토큰 한도용, 응답 후 실제 사용량으로 정산)
+     * - 한글은 대략 글자당 1토큰으로 넉넉하게 계산 + 템플릿별 예상 출력
+     */
+    private long estimateTokens(PromptTemplate template, String prompt) {
+        long output = template == PromptTemplate.ADVICE ? ADVICE_OUTPUT_TOKENS : EMOTION_OUTPUT_TOKENS;
+        return template.systemInstruction().length() + prompt.length() + output;
+    }
+
+    // 응답의 총 토큰 수 (없으면 -1)
+    private static long totalTokens(GenerateContentResponse response) {
+        return response.usageMetadata()
+                .flatMap(usage -> usage.totalTokenCount())
+                .map(Integer::longValue)
+                .orElse(-1L);
+    }
+
+    private Map<String, String> adviceVariables(String userRecord, String knowledgeContext, String memoryContext) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("diary", userRecord);
+        variables.put("knowledge", knowledgeContext);
+        variables.put("memories", memoryContext);
+        return variables;
+    }
+
+    // 감정 라벨 (EmotionClassifier 예시 문장도 같은 목록 사용)
+    public static final List<String> EMOTION_LABELS = List.of(
+            "기쁨", "슬픔", "불안", "분노", "평온", "우울", "기대", "후회", "벅참", "피로");
+
     // [추가] 텍스트의 감정을 단어 하나로 분석하는 메서드
     public String analyzeEmotion(String text) {
         try {
-            String prompt = """
-                다음 일기를 읽고, 작성자의 감정을 가장 잘 나타내는 단어를 아래 목록 중에서 딱 하나만 골라 답변해줘.
-                설명이나 다른 말은 절대 하지 말고, 오직 단어 하나만 출력해.
-                
-                [감정 목록]
-                기쁨, 슬픔, 불안, 분노, 평온, 우울, 기대, 후회, 벅참, 피로
-                
-                [일기 내용]
-                %s
-                """.formatted(text);
-
             // 분석은 짧고 빠르면 되니 flash 모델 사용
-            return getAdvice(prompt).trim(); // 기존 getAdvice 메서드 재활용 (또는 별도 호출)
+            String answer = generate(PromptTemplate.EMOTION, Map.of("diary", text), "emotion").trim();
+            return EMOTION_LABELS.contains(answer) ? answer : "평온"; // 목록 밖 답변은 기본값
         } catch (Exception e) {
             return "평온"; // 에러 시 기본값
         }
     }
 
-    // [추가] 텍스트 -> 벡터 변환 메서드
-    public List<Float> createEmbedding(String text) {
+    /**
+     * [추가] 템플릿별 생성 설정
+     * - 컨텍스트 캐시가 있으면 캐시 이름만 전송 (지시문 토큰을 매번 보내지 않음)
+     * - 없으면 지시문을 systemInstruction 으로 전송
+     */
+    private GenerateContentConfig generationConfig(PromptTemplate template) {
+        String cacheName = contextCacheName(template);
+        if (cacheName != null) {
+            return GenerateContentConfig.builder().cachedContent(cacheName).build();
+        }
+        return GenerateContentConfig.builder()
+                .systemInstruction(Content.fromParts(Part.fromText(template.systemInstruction())))
+                .build();
+    }
+
+    // 컨텍스트 캐시 이름 (name == null 이면 캐시 불가 -> retryAt 까지 다시 시도하지 않음)
+    private record ContextCache(String name, Instant retryAt) {
+    }
+
+    /**
+     * 템플릿의 컨텍스트 캐시 이름 (없으면 null -> systemInstruction 으로 전송)
+     * - 지시문이 모델의 최소 캐시 토큰 수(gemini-2.5-flash 1024)보다 짧으면 등록하지 않음
+     * - 만료가 가까우면 템플릿당 한 요청만 새로 등록하고, 그동안 다른 요청은 기다리지 않고 캐시 없이 전송
+     *   (네트워크 호출 / 속도 제한 대기 중에 lock 을 잡지 않음 - 가상 스레드 pinning 방지)
+     */
+    private String contextCacheName(PromptTemplate template) {
+        if (!contextCacheEnabled) return null;
+        // 한글은 대략 글자당 1토큰 (estimateTokens 와 같은 기준)
+        if (template.systemInstruction().length() < contextCacheMinTokens) return null;
+
+        ContextCache cached = contextCaches.get(template);
+        if (cached != null && Instant.now().isBefore(cached.retryAt())) return cached.name();
+
+        if (contextCacheRefreshing.putIfAbsent(template, Boolean.TRUE) != null) {
+            // 다른 요청이 등록 중 -> 아직 만료 전인 캐시가 있으면 그대로 사용
+            return cached != null && cached.name() != null ? cached.name() : null;
+        }
         try {
-            EmbedContentResponse response = client.models.embedContent(
-                    "text-embedding-004",
-                    text,
-                    null
-            );
-
-            List<ContentEmbedding> embeddingList =
-                    response.embeddings().orElseThrow(() ->
-                            new RuntimeException("임베딩 응답에 embeddings 필드가 없습니다.")
-                    );
+            return refreshContextCache(template).name();
+        } finally {
+            contextCacheRefreshing.remove(template);
+        }
+    }
+
+    // 캐시 새로 등록 (contextCacheName 에서 템플릿당 한 요청만 호출)
+    private ContextCache refreshContextCache(PromptTemplate template) {
+        Instant now = Instant.now();
+        ContextCache cached;
+        try {
+            CachedContent created = call("context_cache", ADVICE_MODEL, template.systemInstruction().length(), permit -> {
+                CachedContent result = transport.createCachedContent(ADVICE_MODEL, CreateCachedContentConfig.builder()
+                        .displayName("5700letter-" + template.name().toLowerCase())
+                        .systemInstruction(Content.fromParts(Part.fromText(template.systemInstruction())))
+                        .ttl(contextCacheTtl)
+                        .build());
+                permit.success(-1);
+                return result;
+            });
+            Instant expireTime = created.expireTime().orElse(now.plus(contextCacheTtl));
+            // 만료 직전 요청이 캐시 없이 실패하지 않도록 1분 일찍 교체
+            cached = new ContextCache(created.name().orElse(null), expireTime.minus(Duration.ofMinutes(1)));
+            System.out.println(">>> Gemini 컨텍스트 캐시 등록: " + template + " -> " + cached.name());
+        } catch (GeminiException e) {
+            // 최소 토큰 수 미달, 미지원 모델 등 -> TTL 동안 systemInstruction 으로 전송
+            // 일시적 오류(장애, 429)면 1분 뒤 다시 시도
+            Duration retryAfter = e.isRetryable() || e.getReason() == GeminiException.Reason.CIRCUIT_OPEN
+                    ? Duration.ofMinutes(1) : contextCacheTtl;
+            cached = new ContextCache(null, now.plus(retryAfter));
+            System.err.println(">>> Gemini 컨텍스트 캐시 사용 불가 (" + template + "), systemInstruction 으로 전송: " + e.getMessage());
+        }
+        contextCaches.put(template, cached);
+        return cached;
+    }
+
+    /**
+     * 캐시가 서버에서 먼저 사라졌다는 응답일 때만 잊음 (다음 요청에서 다시 등록)
+     * - 404, 또는 cachedContent 를 가리키는 400 / 403 (만료 / 삭제)
+     * - 429, 5xx 같은 다른 실패는 캐시와 무관하므로 그대로 둠
+     */
+    private void forgetContextCacheIfMissing(PromptTemplate template, GenerateContentConfig config, Throwable error) {
+        if (config.cachedContent().isEmpty() || !isMissingCache(error)) return;
 
-            if (embeddingList.isEmpty()) {
-                throw new RuntimeException("임베딩 리스트가 비어 있습니다.");
+        ContextCache cached = contextCaches.get(template);
+        if (cached != null && config.cachedContent().get().equals(cached.name())) {
+            contextCaches.remove(template, cached);
+            System.err.println(">>> Gemini 컨텍스트 캐시 만료/삭제됨 (" + template + "), 다시 등록 예정");
+        }
+    }
+
+    private static boolean isMissingCache(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ApiException api) {
+                if (api.code() == 404) return true;
+                String message = api.message() == null ? "" : api.message().toLowerCase();
+                return (api.code() == 400 || api.code() == 403) && message.contains("cache");
             }
+        }
+        return false;
+    }
 
-            ContentEmbedding embedding = embeddingList.get(0);
+    // [추가] 텍스트 -> 벡터 변환 메서드
+    // 같은 텍스트는 EmbeddingCache에서 바로 반환 (API 호출 없음)
+    public FloatVector createEmbedding(String text) {
+        return embeddingCache.get(EMBEDDING_MODEL, text, () -> requestEmbedding(text));
+    }
 
-            // 여기! embedding.values() 가 Optional<List<Float>> 라서 풀어줘야 함
+    // [추가] 텍스트의 임베딩 캐시 키 (텍스트 원문 대신 키만 들고 있다가 나중에 삭제할 때 사용)
+    public String embeddingCacheKey(String text) {
+        return EmbeddingCache.key(EMBEDDING_MODEL, text);
+    }
 
-            return embedding.values().orElseThrow(() ->
-                    new RuntimeException("임베딩 값이 없습니다.")
-            );
+    // 임베딩 API 호출 (재시도 + 꼬리 지연 시 헤지 요청)
+    private FloatVector requestEmbedding(String text) {
+        return retrying("embedding", () -> embedOnce(text), () -> true);
+    }
 
-        } catch (Exception e) {
-            throw new RuntimeException("임베딩 생성 중 오류 발생: " + e.getMessage(), e);
+    // 허가를 받은 뒤 전송만 헤지 (헤지 요청은 embedUnhedged 로 허가를 따로 받음)
+    private FloatVector embedOnce(String text) {
+        return call("embedding", EMBEDDING_MODEL, text.length(), permit -> {
+            FloatVector vector = hedged("embedding", () -> embedContent(text), () -> embedUnhedged(text));
+            permit.success(-1);
+            return vector;
+        });
+    }
+
+    private FloatVector embedUnhedged(String text) {
+        return call("embedding", EMBEDDING_MODEL, text.length(), permit -> {
+            FloatVector vector = embedContent(text);
+            permit.success(-1);
+            return vector;
+        });
+    }
+
+    private FloatVector embedContent(String text) {
+        EmbedContentResponse response = transport.embedContent(
+                EMBEDDING_MODEL,
+                text
+        );
+
+        List<ContentEmbedding> embeddingList =
+                response.embeddings().orElseThrow(() -> emptyEmbedding("임베딩 응답에 embeddings 필드가 없습니다."));
+
+        if (embeddingList.isEmpty()) {
+            throw emptyEmbedding("임베딩 리스트가 비어 있습니다.");
         }
+
+        ContentEmbedding embedding = embeddingList.get(0);
+
+        // 여기! embedding.values() 가 Optional<List<Float>> 라서 풀어줘야 함
+        List<Float> values = embedding.values().orElseThrow(() -> emptyEmbedding("임베딩 값이 없습니다."));
+
+        // SDK 응답은 List<Float> -> 여기서 한 번만 언박싱
+        return FloatVector.copyOf(values);
     }
 
-}
\ No newline at end of file
+    private static GeminiException emptyEmbedding(String message) {
+        return new GeminiException(GeminiException.Reason.EMPTY_RESPONSE, message, null);
+    }
+
+    // gemini.calls{model, operation, outcome} - 허가 대기 시간 포함, 시도 한 번당 하나
+    private void record(Timer.Sample sample, String model, String operation, String outcome) {
+        sample.stop(Timer.builder("gemini.calls")
+                .description("Gemini API 호출 시간")
+                .tag("model", model)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
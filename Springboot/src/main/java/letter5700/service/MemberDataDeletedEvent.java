@@ -0,0 +1,13 @@
+package letter5700.service;
+
+import java.util.List;
+
+/**
+ * 회원 기록 삭제가 끝났을 때 발행 (DB 커밋 이후)
+ * - DB 밖에 남아있는 회원 관련 데이터(벡터, 캐시)를 MemberDataPurger 가 비동기로 정리
+ *
+ * @param memberId           삭제된 기록의 주인
+ * @param embeddingCacheKeys 삭제된 일기 본문의 임베딩 캐시 키
+ */
+public record MemberDataDeletedEvent(Long memberId, List<String> embeddingCacheKeys) {
+}
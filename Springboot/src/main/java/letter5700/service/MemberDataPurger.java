@@ -0,0 +1,45 @@
+package letter5700.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 회원 기록 삭제 후 DB 밖 데이터 정리 (요청 스레드와 분리해서 비동기 실행)
+ * - 일기 본문으로 만든 임베딩 캐시 (메모리 + embedding_cache 테이블)
+ * - 지난 일기 기억 (diary_memory 컬렉션의 이 회원 포인트 - memberId 필터로 한 번에)
+ * - 실패해도 기록 삭제 자체는 이미 끝났으므로 로그만 남김
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberDataPurger {
+
+    // 한 번에 지울 캐시 키 수 (IN 절 크기 제한)
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    private final EmbeddingCache embeddingCache;
+    private final DiaryMemoryService diaryMemoryService;
+
+    @Async
+    @EventListener
+    public void onMemberDataDeleted(MemberDataDeletedEvent event) {
+        List<String> keys = event.embeddingCacheKeys();
+        try {
+            for (int from = 0; from < keys.size(); from += PURGE_CHUNK_SIZE) {
+                embeddingCache.evict(keys.subList(from, Math.min(from + PURGE_CHUNK_SIZE, keys.size())));
+            }
+            System.out.println(">>> [정리] 회원 " + event.memberId() + " 임베딩 캐시 " + keys.size() + "건 삭제");
+        } catch (Exception e) {
+            System.err.println(">>> [정리] 회원 " + event.memberId() + " 캐시 정리 실패: " + e.getMessage());
+        }
+        try {
+            diaryMemoryService.forget(event.memberId());
+            System.out.println(">>> [정리] 회원 " + event.memberId() + " 지난 일기 기억 삭제");
+        } catch (Exception e) {
+            System.err.println(">>> [정리] 회원 " + event.memberId() + " 지난 일기 기억 정리 실패: " + e.getMessage());
+        }
+    }
+}
@@ -30,5 +30,6 @@ public class MemberService {
 
         // @Transactional 덕분에 변경 감지(Dirty Checking)가 작동하여
         // 별도의 repository.save(member) 없이도 DB에 자동 업데이트됩니다.
+        // (인증 캐시의 옛 정보는 Member 엔티티 리스너가 제거 - PrincipalCacheEvictor)
     }
 }
\ No newline at end of file
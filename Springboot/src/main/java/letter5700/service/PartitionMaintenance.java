@@ -0,0 +1,36 @@
+package letter5700.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * daily_record 월 파티션 미리 만들기 (V2__partition_daily_record.sql 의 함수 호출)
+ * - 서버 시작 시 + 매일 새벽, 이번 달부터 monthsAhead 달 뒤까지 없는 파티션 생성
+ * - 미리 만들어 두지 않으면 새 기록이 기본 파티션(daily_record_default)으로 들어감
+ * - 여러 서버가 동시에 실행해도 이미 있는 파티션은 건너뜀
+ */
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenance {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${record.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${record.partition.cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        try {
+            jdbcTemplate.execute("SELECT ensure_daily_record_partitions(" + monthsAhead + ")");
+        } catch (DataAccessException e) {
+            System.err.println(">>> [파티션] 월 파티션 생성 실패: " + e.getMessage());
+        }
+    }
+}
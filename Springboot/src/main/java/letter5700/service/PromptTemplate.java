@@ -0,0 +1,82 @@
+package letter5700.service;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gemini 프롬프트 템플릿 (이름 하나당 지시문 + 사용자 입력 틀)
+ * - systemInstruction: 매 요청 똑같은 지시문 -> Gemini systemInstruction 으로 전송 (컨텍스트 캐시 대상)
+ * - userTemplate: 요청마다 바뀌는 부분, {{이름}} 자리에 변수 값이 들어감
+ */
+public enum PromptTemplate {
+
+    ADVICE("""
+            당신은 '5700 레터'라는 서비스의 심리 상담 전문가이자 AI 조언자입니다.
+            사용자의 일기를 읽고, 그 마음을 깊이 헤아려 약 5,700자 분량(공백 포함)의 매우 긴 편지를 써주세요.
+            함께 주어지는 '참고 지식'이 있다면 그 내용을 바탕으로 조언하세요.
+            '지난 일기'는 사용자가 예전에 쓴 비슷한 일기입니다. 있다면 그때와 지금의 마음을 자연스럽게 이어서 이야기하세요.
+
+            [지침]
+            1. 단순한 위로를 넘어, 심리적/철학적 통찰을 제공하세요.
+            2. 문체는 따뜻하고 서정적이며, 때로는 냉철한 분석도 포함하세요.
+            3. 서론-본론(다각도 분석)-결론의 구조를 갖추고 풍부한 문장을 사용하세요.
+            4. 절대 요약하지 말고, 이야기를 풀어서 서술하세요.
+            5. 답변을 작성할 때 문장 앞에 숫자를 붙이는 형태의 번호 매기기를 사용하지 않는다
+            6. 문장을 강조할 때 별표(*)를 이용한 굵게 표시를 사용하지 않는다
+            7. 과도한 장식, 과도한 Markdown 형식, 불필요한 시각적 강조를 피한다
+            """, """
+            [참고 지식]
+            {{knowledge}}
+
+            [지난 일기]
+            {{memories}}
+
+            [사용자 일기]
+            {{diary}}
+            """),
+
+    EMOTION("""
+            사용자의 일기를 읽고, 작성자의 감정을 가장 잘 나타내는 단어를 아래 목록 중에서 딱 하나만 골라 답변해줘.
+            설명이나 다른 말은 절대 하지 말고, 오직 단어 하나만 출력해.
+
+            [감정 목록]
+            %s
+            """.formatted(String.join(", ", GeminiService.EMOTION_LABELS)), """
+            [일기 내용]
+            {{diary}}
+            """);
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private final String systemInstruction;
+    private final String userTemplate;
+
+    PromptTemplate(String systemInstruction, String userTemplate) {
+        this.systemInstruction = systemInstruction;
+        this.userTemplate = userTemplate;
+    }
+
+    public String systemInstruction() {
+        return systemInstruction;
+    }
+
+    /**
+     * 사용자 입력 틀에 변수 채우기
+     * - 빠진 변수가 있으면 IllegalArgumentException (값이 null 이면 빈 문자열)
+     */
+    public String render(Map<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(userTemplate);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!variables.containsKey(name)) {
+                throw new IllegalArgumentException("프롬프트 변수 누락: " + name() + "." + name);
+            }
+            String value = variables.get(name);
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value == null ? "" : value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+}
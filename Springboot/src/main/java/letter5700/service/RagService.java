@@ -1,229 +1,175 @@
 package letter5700.service;
 
-import io.qdrant.client.QdrantClient;
-import io.qdrant.client.QdrantGrpcClient;
-import io.qdrant.client.grpc.Collections.Distance;
-import io.qdrant.client.grpc.Collections.VectorParams;
-import io.qdrant.client.grpc.JsonWithInt;
-import io.qdrant.client.grpc.Points;
-import io.qdrant.client.grpc.Points.PointStruct;
-import io.qdrant.client.grpc.Points.ScoredPoint;
-import io.qdrant.client.grpc.Points.SearchPoints;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
+import letter5700.vector.FloatVector;
+import letter5700.vector.SearchHit;
+import letter5700.vector.UpsertResult;
+import letter5700.vector.VectorPoint;
+import letter5700.vector.VectorStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import static io.qdrant.client.PointIdFactory.id;
-import static io.qdrant.client.VectorFactory.vector;
-import static io.qdrant.client.VectorsFactory.namedVectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class RagService {
 
-    // Qdrant 클라이언트 인스턴스
-    private QdrantClient qdrantClient;
+    // 지식 저장소 (rag.vector-store 설정에 따라 Qdrant 또는 프로세스 내 검색, VectorStoreConfig 참고)
+    private final VectorStore knowledgeVectorStore;
     private final GeminiService geminiService;
-
-    // 컬렉션 이름, 벡터 이름, 벡터 차원 정의
-    private final String COLLECTION = "advice_knowledge";
-    private final String VECTOR_NAME = "text";
-    private final int VECTOR_SIZE = 768;
+    private final MeterRegistry meterRegistry;
 
     @PostConstruct
     public void init() {
-        // Qdrant 클라이언트 초기화 (localhost:6334 기본값)
-        qdrantClient = new QdrantClient(
-                QdrantGrpcClient.newBuilder("localhost", 6334, false).build()
-        );
         // 서버 시작 시 컬렉션이 없으면 자동 생성
         initCollection();
     }
 
-    // 자원 해제
-    @PreDestroy
-    public void close() {
-        if (qdrantClient != null) {
-            qdrantClient.close();
-        }
-    }
-
-    /**
-     * Qdrant 1.16 Named Vector 기반 컬렉션 생성
-     * - vector params 설정: size, distance
-     * - NamedVectors 생성(map<string, VectorParams>)
-     * - VectorsConfig에 NamedVectors 추가
-     * - 컬렉션 생성(CreateCollection)
-     */
     public void initCollection() {
-        try {
-            // [수정] 컬렉션 존재 여부 먼저 확인 (에러 방지)
-            if (qdrantClient.collectionExistsAsync(COLLECTION).get()) {
-                System.out.println(">>> Collection already exists: " + COLLECTION);
-                return;
-            }
-
-            // VectorParams 생성 (size, distance 설정)
-            VectorParams vectorParams = VectorParams.newBuilder()
-                    .setSize(VECTOR_SIZE)
-                    .setDistance(Distance.Cosine)
-                    .build();
+        knowledgeVectorStore.ensureCollection();
+    }
 
-            // Named Vectors로 컬렉션 생성
-            Map<String, VectorParams> namedVectorsMap = Map.of(VECTOR_NAME, vectorParams);
+    public CompletableFuture<Void> initCollectionAsync() {
+        return knowledgeVectorStore.ensureCollectionAsync();
+    }
 
-            qdrantClient.createCollectionAsync(COLLECTION, namedVectorsMap).get();
+    // 지식 데이터 (조언 작성 시 참고할 문장들)
+    private static final List<String> KNOWLEDGE_TEXTS = List.of(
+            "불안은 통제할 수 없는 미래를 통제하려는 마음에서 온다. 현재에 집중하라.",
+            "진정한 휴식은 멈춤이 아니라, 나를 돌보는 적극적인 행위이다.",
+            "슬픔을 억누르면 엉뚱한 곳에서 터진다. 충분히 울어야 비로소 웃을 수 있다."
+    );
 
-            System.out.println("Collection created: " + COLLECTION);
+    /**
+     * [추가] 지식 데이터 동기화 (서버 시작 시 호출)
+     * - 포인트 ID = 내용 해시로 만든 UUID -> 같은 문장은 항상 같은 ID (재시작해도 중복 없음)
+     * - 저장된 ID 목록과 비교해서 새로 생긴/바뀐 문장만 임베딩 + 저장
+     * - 목록에서 빠진 문장(예전 랜덤 UUID로 들어간 중복 포함)은 삭제
+     * - 변경 사항이 없으면 ID 목록 조회 한 번으로 끝
+     */
+    public void initKnowledgeBase() {
+        System.out.println(">>> RAG 지식 동기화 시작...");
 
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to create collection", e);
+        // 1. 원하는 상태 (ID -> 문장)
+        Map<UUID, String> desired = new LinkedHashMap<>();
+        for (String text : KNOWLEDGE_TEXTS) {
+            desired.put(knowledgeId(text), text);
         }
-    }
 
-    // [추가] 지식 데이터 초기화 메서드
-    public void initKnowledgeBase() {
-        System.out.println(">>> RAG 데이터 주입 시작...");
+        // 2. 현재 저장된 상태
+        Set<UUID> stored = knowledgeVectorStore.listIds();
 
-        String[] knowledgeTexts = {
-                "불안은 통제할 수 없는 미래를 통제하려는 마음에서 온다. 현재에 집중하라.",
-                "진정한 휴식은 멈춤이 아니라, 나를 돌보는 적극적인 행위이다.",
-                "슬픔을 억누르면 엉뚱한 곳에서 터진다. 충분히 울어야 비로소 웃을 수 있다."
-        };
-
-        for (String text : knowledgeTexts) {
+        // 3. 없는 것만 임베딩 후 일괄 저장
+        List<VectorPoint> missing = new ArrayList<>();
+        for (Map.Entry<UUID, String> entry : desired.entrySet()) {
+            if (stored.contains(entry.getKey())) continue;
             try {
-                // 1. 텍스트 -> 임베딩 변환 (Gemini 이용)
-                List<Float> vector = geminiService.createEmbedding(text);
-
-                // 2. Qdrant 저장 (자기 자신의 메서드 호출)
-                upsert(UUID.randomUUID(), vector, Map.of("content", text));
-
+                FloatVector vector = geminiService.createEmbedding(entry.getValue());
+                missing.add(new VectorPoint(entry.getKey(), vector, Map.of("content", entry.getValue())));
             } catch (Exception e) {
-                System.err.println("데이터 주입 중 오류 발생 (" + text + "): " + e.getMessage());
+                System.err.println("데이터 주입 중 오류 발생 (" + entry.getValue() + "): " + e.getMessage());
             }
         }
-        System.out.println(">>> RAG 데이터 주입 완료! (" + knowledgeTexts.length + "건)");
-    }
+        int added = missing.isEmpty() ? 0 : upsertBatch(missing, true).upserted();
 
-    /**
-     * Point upsert
-     * - payload를 JsonWithInt 형태로 변환
-     * - float[] → Points.Vector 변환
-     * - NamedVectors(map<string, Vector>) 생성
-     * - Points.Vectors로 래핑
-     * - PointStruct 생성(id, vectors, payload)
-     * - UpsertPoints 요청 실행
-     */
-    public void upsert(UUID id, List<Float> vector, Map<String, Object> payload) {
-        try {
-            // Named vectors 생성 (VectorFactory.vector + VectorsFactory.namedVectors)
-            Points.Vector pointVector = vector(vector);
-            Points.Vectors pointVectors = namedVectors(Map.of(VECTOR_NAME, pointVector));
-
-            // Payload 변환 (Map<String, Object> → Map<String, JsonWithInt.Value>)
-            Map<String, JsonWithInt.Value> payloadMap = new HashMap<>();
-            for (Map.Entry<String, Object> entry : payload.entrySet()) {
-                payloadMap.put(entry.getKey(), convertToValue(entry.getValue()));
+        // 4. 더 이상 없는 것 삭제
+        List<UUID> stale = stored.stream()
+                .filter(storedId -> !desired.containsKey(storedId))
+                .toList();
+        if (!stale.isEmpty()) {
+            try {
+                knowledgeVectorStore.delete(stale);
+            } catch (RuntimeException e) {
+                System.err.println("오래된 지식 삭제 중 오류 발생: " + e.getMessage());
             }
+        }
 
-            // PointStruct 생성
-            PointStruct point = PointStruct.newBuilder()
-                    .setId(id(id))
-                    .setVectors(pointVectors)
-                    .putAllPayload(payloadMap)
-                    .build();
-
-            // UpsertPoints 실행
-            qdrantClient.upsertAsync(COLLECTION, List.of(point)).get();
+        System.out.println(">>> RAG 지식 동기화 완료! (추가 " + added + "건, 삭제 " + stale.size()
+                + "건, 유지 " + (desired.size() - missing.size()) + "건)");
+    }
 
-            System.out.println("Point upserted: " + id);
+    // 내용 해시 기반 결정적 ID
+    private UUID knowledgeId(String text) {
+        return UUID.nameUUIDFromBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
 
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to upsert point", e);
+    /**
+     * Point upsert (한 건)
+     */
+    public void upsert(UUID id, FloatVector vector, Map<String, Object> payload) {
+        UpsertResult result = knowledgeVectorStore.upsert(List.of(new VectorPoint(id, vector, payload)), true);
+        if (!result.isSuccess()) {
+            throw new RuntimeException("Failed to upsert point: " + result.failures().get(0).error());
         }
+
+        System.out.println("Point upserted: " + id);
     }
 
     /**
-     * Search
-     * - query vector → Points.Vector 변환
-     * - NamedVectors 생성 후 Points.Vectors로 래핑
-     * - SearchPoints 요청 생성(setCollectionName, addVectors, setLimit, setWithPayload)
-     * - Qdrant searchAsync 호출 후 결과 반환
+     * 일괄 Upsert
+     * - 배치 크기 / 동시 전송 수는 저장소 구현(QdrantVectorStore)이 관리
+     * - 실패한 배치는 예외 대신 UpsertResult.failures 로 보고
      */
-    public List<ScoredPoint> search(List<Float> queryVector, int limit) {
+    public UpsertResult upsertBatch(List<VectorPoint> points, boolean wait) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
-            // SearchPoints 요청 생성
-            SearchPoints searchRequest = SearchPoints.newBuilder()
-                    .setCollectionName(COLLECTION)
-                    .addAllVector(queryVector)
-                    .setLimit(limit)
-                    .setWithPayload(Points.WithPayloadSelector.newBuilder()
-                            .setEnable(true)
-                            .build())
-                    .setVectorName(VECTOR_NAME)  // Named vector 지정
-                    .build();
-
-            // 검색 실행
-            List<ScoredPoint> results = qdrantClient.searchAsync(searchRequest).get();
-
-            return results;
-
-        } catch (InterruptedException | ExecutionException e) {
-            throw new RuntimeException("Failed to search", e);
+            UpsertResult result = knowledgeVectorStore.upsert(points, wait);
+            outcome = result.isSuccess() ? "success" : "partial";
+            return result;
+        } finally {
+            sample.stop(timer("rag.upsert", outcome));
         }
     }
 
-    /**
-     * float[] → List<Float> 변환
-     * - 벡터를 protobuf에서 사용 가능한 형태로 변환
-     */
-    private List<Float> floatArrayToList(float[] arr) {
-        return IntStream.range(0, arr.length)
-                .mapToObj(i -> arr[i])
-                .collect(Collectors.toList());
+    public CompletableFuture<UpsertResult> upsertAsync(List<VectorPoint> points, boolean wait) {
+        return timed("rag.upsert", () -> knowledgeVectorStore.upsertAsync(points, wait));
     }
 
     /**
-     * Object → JsonWithInt.Value 변환
-     * - Payload 값을 Qdrant가 받을 수 있는 형태로 변환
+     * Search
+     * - 코사인 유사도 상위 limit 개 (payload 포함)
      */
-    private JsonWithInt.Value convertToValue(Object obj) {
-        if (obj == null) {
-            return JsonWithInt.Value.newBuilder()
-                    .setNullValue(io.qdrant.client.grpc.JsonWithInt.NullValue.NULL_VALUE)
-                    .build();
-        } else if (obj instanceof String) {
-            return JsonWithInt.Value.newBuilder()
-                    .setStringValue((String) obj)
-                    .build();
-        } else if (obj instanceof Integer) {
-            return JsonWithInt.Value.newBuilder()
-                    .setIntegerValue((Integer) obj)
-                    .build();
-        } else if (obj instanceof Long) {
-            return JsonWithInt.Value.newBuilder()
-                    .setIntegerValue((Long) obj)
-                    .build();
-        } else if (obj instanceof Double) {
-            return JsonWithInt.Value.newBuilder()
-                    .setDoubleValue((Double) obj)
-                    .build();
-        } else if (obj instanceof Boolean) {
-            return JsonWithInt.Value.newBuilder()
-                    .setBoolValue((Boolean) obj)
-                    .build();
-        } else {
-            throw new IllegalArgumentException("Unsupported payload type: " + obj.getClass());
+    public List<SearchHit> search(FloatVector queryVector, int limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            List<SearchHit> hits = knowledgeVectorStore.search(queryVector, limit);
+            outcome = "success";
+            return hits;
+        } finally {
+            sample.stop(timer("rag.search", outcome));
         }
     }
-}
\ No newline at end of file
+
+    // 스레드를 막지 않는 검색 (응답이 오면 future 완료)
+    public CompletableFuture<List<SearchHit>> searchAsync(FloatVector queryVector, int limit) {
+        return timed("rag.search", () -> knowledgeVectorStore.searchAsync(queryVector, limit));
+    }
+
+    // 비동기 호출 시간 기록 (future 가 끝나는 시점까지)
+    private <T> CompletableFuture<T> timed(String name, Supplier<CompletableFuture<T>> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return call.get().whenComplete((result, error) ->
+                sample.stop(timer(name, error == null ? "success" : "failure")));
+    }
+
+    private Timer timer(String name, String outcome) {
+        return Timer.builder(name)
+                .description("지식 저장소 호출 시간 (outcome: success | partial | failure)")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,23 +1,40 @@
 package letter5700.service;
 
-import io.qdrant.client.grpc.Points;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import letter5700.dto.AdviceResponse;
+import letter5700.dto.RecordPageResponse;
 import letter5700.dto.RecordRequest;
 import letter5700.dto.RecordResponse;
+import letter5700.dto.RecordSummary;
+import letter5700.dto.SimilarRecord;
 import letter5700.entity.Advice;
+import letter5700.entity.AdviceJob;
 import letter5700.entity.DailyRecord;
 import letter5700.entity.Member;
+import letter5700.repository.AdviceJobRepository;
 import letter5700.repository.AdviceRepository;
 import letter5700.repository.DailyRecordRepository;
 import letter5700.repository.MemberRepository;
+import letter5700.vector.FloatVector;
+import letter5700.vector.SearchHit;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,12 +46,25 @@ public class RecordService {
     private final MemberRepository memberRepository;
     private final AdviceRepository adviceRepository;
     private final GeminiService geminiService;
-    private final RagService ragService;
+    private final AdvicePipeline advicePipeline;
+    private final DiaryMemoryService diaryMemoryService;
     private final FcmService fcmService;
+    private final AdviceStreamHub adviceStreamHub;
+    private final AdviceJobService adviceJobService;
+    private final AdviceJobRepository adviceJobRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Autowired
-    @Lazy
-    private RecordService self;
+    // 기록 일괄 삭제 시 한 번에 지울 기록 수
+    @Value("${record.delete.chunk-size:500}")
+    private int deleteChunkSize;
+
+    // 목록 한 페이지 최대 크기
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // 비슷한 지난 일기 최대 개수
+    private static final int MAX_SIMILAR = 20;
 
     public Long saveRecord(RecordRequest request, String username) {
         // 0. 사용자 조회
@@ -50,45 +80,51 @@ public class RecordService {
         );
         DailyRecord savedRecord = recordRepository.save(record);
 
-        self.generateAdviceAsync(savedRecord.getId(), request.getContent(), request.getFcmToken());
+        // 3. 편지 생성 작업 등록 (같은 트랜잭션 -> 서버가 죽어도 작업이 사라지지 않음)
+        // 대기 작업이 너무 많으면 TaskRejectedException -> 기록 저장도 롤백 (503 응답)
+        adviceJobService.enqueue(savedRecord.getId(), request.getFcmToken());
 
         return savedRecord.getId(); // 앱에는 바로 "성공" 응답이 감
     }
 
-    // 3. [비동기] 뒤에서 몰래 5700자 조언 쓰기 (@Async)
-    @Async
-    public void generateAdviceAsync(Long recordId, String content, String fcmToken) {
+    // 3. [비동기] 뒤에서 몰래 5700자 조언 쓰기
+    // AdviceJobWorker가 작업 큐에서 꺼내 adviceExecutor(가상 스레드)에서 호출
+    // - 실패 시 예외를 던져서 워커가 재시도/데드레터 처리하도록 함
+    // - 긴 LLM 호출 동안 DB 커넥션을 잡고 있지 않도록 트랜잭션 밖에서 실행
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void generateAdviceAsync(Long recordId, String fcmToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        DailyRecord target = recordRepository.findById(recordId).orElse(null);
+        if (target == null || target.getAdvice() != null) {
+            // 그 사이 삭제되었거나, 이전 시도에서 이미 완성된 경우 (재시도 중복 방지)
+            sample.stop(adviceTimer("skipped"));
+            return;
+        }
+        String content = target.getContent();
+
         try {
             System.out.println(">>> [비동기] 작업 시작 (ID: " + recordId + ")");
 
-            // (1) 감정 분석
-            String aiEmotion = geminiService.analyzeEmotion(content);
-
-            // (2) RAG 검색
-            List<Float> queryVector = geminiService.createEmbedding(content);
-            List<Points.ScoredPoint> searchResults = ragService.search(queryVector, 3);
-            String knowledgeContext = searchResults.stream()
-                    .map(point -> point.getPayloadMap().get("content").getStringValue())
-                    .collect(Collectors.joining("\n- "));
-
-            // (3) 프롬프트 구성
-            String finalPrompt = String.format("""
-                당신은 심리 상담 전문가입니다.
-                아래 '참고 지식'을 바탕으로, 사용자의 일기에 대해 5700자 내외의 깊이 있는 편지를 써주세요.
-                
-                [참고 지식]
-                %s
-                
-                [사용자 일기]
-                %s
-                """, knowledgeContext, content);
-
-            // (4) 조언 생성
-            String aiAdvice = geminiService.getAdvice(finalPrompt);
-
-            // (5) DB 업데이트 (트랜잭션 분리됨)
+            // (1) 감정 분석 + (2) RAG 검색 + 비슷한 지난 일기 (동시 실행 후 합류)
+            AdvicePipeline.Prepared prepared = advicePipeline.prepare(recordId, target.getMember().getId(), content);
+            String aiEmotion = prepared.emotion();
+            String knowledgeContext = prepared.knowledgeContext();
+
+            // (3) 조언 생성 (스트리밍: 조각이 올 때마다 SSE 구독자에게 전달)
+            //     지시문은 PromptTemplate.ADVICE 하나로 관리 (systemInstruction / 컨텍스트 캐시)
+            adviceStreamHub.open(recordId);
+            String aiAdvice = geminiService.streamAdvice(content, knowledgeContext, prepared.memoryContext(),
+                    chunk -> adviceStreamHub.publish(recordId, chunk));
+
+            // (4) DB 업데이트 (트랜잭션 분리됨)
             // 주의: Async 내부에서는 트랜잭션이 끊기므로 다시 조회해서 처리
             recordRepository.findById(recordId).ifPresent(record -> {
+                if (record.getAdvice() != null) {
+                    // 리스를 잃은 사이 다른 서버가 먼저 저장한 경우 (같은 편지를 두 번 저장하지 않음)
+                    System.err.println(">>> [비동기] 이미 저장된 편지가 있어 건너뜀 (ID: " + recordId + ")");
+                    return;
+                }
                 // 1. 감정 업데이트 후 저장 (일기 테이블)
                 record.setEmotion(aiEmotion);
                 recordRepository.save(record);
@@ -99,18 +135,50 @@ public class RecordService {
 
                 System.out.println(">>> [비동기] DB 저장 완료! 감정: " + aiEmotion);
             });
+            adviceStreamHub.complete(recordId, aiEmotion, aiAdvice);
 
-            // (6) 알림 전송
+            // (5) 알림 전송
             fcmService.sendNotification(
                     fcmToken,
                     "5700 Letter 도착",
                     "당신에게 필요한 말, 준비됐어요."
             );
+            sample.stop(adviceTimer("success"));
 
         } catch (Exception e) {
-            e.printStackTrace();
+            sample.stop(adviceTimer("failure"));
+            if (!(e instanceof GeminiException)) e.printStackTrace(); // Gemini 실패는 원인이 메시지에 있음
             System.err.println(">>> [비동기] 실패: " + e.getMessage());
+            adviceStreamHub.fail(recordId, "편지 생성이 지연되고 있어요. 잠시 후 다시 확인해주세요.");
+            throw e;
+        }
+    }
+
+    // advice.generation{outcome} - 작업 하나의 전체 소요 시간 (준비 + 생성 + 저장 + 알림)
+    private Timer adviceTimer(String outcome) {
+        return Timer.builder("advice.generation")
+                .description("편지 생성 전체 소요 시간")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // [추가] 편지 생성 스트림 구독 (SSE)
+    // 남의 기록 ID 면 없는 기록과 같은 응답 (다른 회원의 편지를 엿볼 수 없음)
+    @Transactional(readOnly = true)
+    public SseEmitter streamAdvice(Long recordId, String username) {
+        Member member = memberRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다."));
+        if (!recordRepository.existsByIdAndMemberId(recordId, member.getId())) {
+            throw new IllegalArgumentException("기록을 찾을 수 없습니다.");
         }
+
+        // 먼저 구독한 뒤 완성 여부를 확인해야, 그 사이에 끝난 생성도 놓치지 않음
+        // (구독 전에 읽은 엔티티는 쓰지 않고 구독 후 DB 에서 다시 조회)
+        // 다른 서버가 생성 중이면 AdviceStreamHub.recheck 가 주기적으로 다시 확인
+        SseEmitter emitter = adviceStreamHub.subscribe(recordId);
+        adviceStreamHub.settle(recordId);
+        return emitter;
     }
 
     // [추가] 1. 단건 조회 (특정 일기와 조언 보기)
@@ -121,7 +189,73 @@ public class RecordService {
         return new RecordResponse(record);
     }
 
+    // [추가] 편지만 조회 (결과 화면 / 폴링용)
+    @Transactional(readOnly = true)
+    public AdviceResponse getAdvice(Long recordId) {
+        DailyRecord record = recordRepository.findById(recordId)
+                .orElseThrow(() -> new IllegalArgumentException("기록을 찾을 수 없습니다."));
+        return new AdviceResponse(record, isAdviceFailed(record.getId(), record.getAdvice() != null));
+    }
+
+    // [추가] 편지 생성이 최종 실패했는지 (재시도를 다 써서 작업이 DEAD 가 된 경우)
+    private boolean isAdviceFailed(Long recordId, boolean adviceReady) {
+        return !adviceReady && adviceJobRepository.existsByRecordIdAndStatus(recordId, AdviceJob.Status.DEAD);
+    }
+
+    // [추가] 조건부 요청용 버전 (ETag + 편지 완성 여부)
+    public record RecordVersion(String etag, boolean adviceReady) {
+    }
+
+    /**
+     * [추가] 기록 버전 조회 (ETag 계산)
+     * - 일기는 수정되지 않고, 편지는 한 번 저장되면 바뀌지 않음
+     *   -> (기록 id, 감정, 편지 id, 편지 생성 시각) 이 같으면 응답 본문도 같음
+     * - 본문/편지 전문을 읽지 않는 가벼운 쿼리 하나 -> 304 응답은 직렬화 비용 없음
+     * - 내 기록만 (남의 기록 ID 면 없는 기록과 같은 응답)
+     *   상세 / 편지 조회는 항상 이 메서드를 먼저 거치므로 소유자 확인도 여기서 함
+     */
+    @Transactional(readOnly = true)
+    public RecordVersion getRecordVersion(Long recordId, String username) {
+        Member member = memberRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다."));
+        DailyRecordRepository.RecordVersion version = recordRepository.findVersionById(recordId, member.getId())
+                .orElseThrow(() -> new IllegalArgumentException("기록을 찾을 수 없습니다."));
+
+        String state = version.getAdviceId() != null ? version.getAdviceId().toString()
+                : isAdviceFailed(recordId, false) ? "failed" : "pending";
+        int hash = Objects.hash(version.getEmotion(), version.getAdviceCreatedAt());
+        // 약한 ETag: 같은 JSON 이 gzip/비압축 두 가지로 나갈 수 있음 (Tomcat 은 강한 ETag 응답을 압축하지 않음)
+        String etag = "W/\"" + version.getId() + "-" + state + "-" + Integer.toHexString(hash) + "\"";
+        return new RecordVersion(etag, version.getAdviceId() != null);
+    }
+
+    /**
+     * [추가] 비슷한 지난 일기 (내 기록 중에서만)
+     * - 편지 생성 때와 같은 본문이라 임베딩은 캐시에서 바로 나옴 (EmbeddingCache)
+     * - 남의 기록 ID 면 없는 기록과 같은 응답 (존재 여부를 알려주지 않음)
+     * - 임베딩이 캐시에 없으면 Gemini 를 호출하므로 DB 트랜잭션 밖에서 실행
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SimilarRecord> getSimilarRecords(Long recordId, String username, int limit) {
+        Member member = memberRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다."));
+        DailyRecord record = recordRepository.findById(recordId)
+                .filter(found -> found.getMember().getId().equals(member.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("기록을 찾을 수 없습니다."));
+
+        FloatVector vector = geminiService.createEmbedding(record.getContent());
+        try {
+            List<SearchHit> hits = diaryMemoryService.searchAsync(member.getId(), vector,
+                    Math.max(1, Math.min(limit, MAX_SIMILAR)), recordId).join();
+            return diaryMemoryService.load(member.getId(), hits);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
     // [추가] 2. 목록 조회 (특정 사용자의 모든 기록)
+    // 기록이 많으면 응답이 커지므로 새 클라이언트는 getMemberRecordPage 사용
     @Transactional(readOnly = true)
     public List<RecordResponse> getMemberRecords(String username) {
         Member member = memberRepository.findByUsername(username)
@@ -134,12 +268,89 @@ public class RecordService {
                 .collect(Collectors.toList());
     }
 
-    // [추가] 특정 멤버의 모든 기록 삭제 (설정 > 데이터 초기화용)
+    /**
+     * [추가] 목록 조회 - 커서 기반 페이지 (요약만)
+     * - 커서 = 이전 페이지 마지막 기록의 (recordDate, id) -> OFFSET 없이 이어서 조회
+     * - size + 1 개를 읽어서 다음 페이지 존재 여부 판단
+     */
+    @Transactional(readOnly = true)
+    public RecordPageResponse getMemberRecordPage(String username, String cursor, int size) {
+        Member member = memberRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다."));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<RecordSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = recordRepository.findSummaries(member.getId(), limit);
+        } else {
+            RecordCursor after = RecordCursor.decode(cursor);
+            rows = recordRepository.findSummariesBefore(member.getId(), after.date(), after.id(), limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new RecordPageResponse(rows, null);
+        }
+        List<RecordSummary> page = rows.subList(0, pageSize);
+        RecordSummary last = page.get(pageSize - 1);
+        return new RecordPageResponse(page, new RecordCursor(last.getDate(), last.getId()).encode());
+    }
+
+    // 목록 커서 ("recordDate|id" 를 base64url 로 감싼 문자열, 클라이언트는 내용을 해석하지 않음)
+    private record RecordCursor(LocalDateTime date, Long id) {
+
+        String encode() {
+            String raw = date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static RecordCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new RecordCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+    }
+
+    /**
+     * [추가] 특정 멤버의 모든 기록 삭제 (설정 > 데이터 초기화용)
+     * - deleteChunkSize 개씩 묶어서 작업 -> 편지 -> 기록 순으로 DELETE ... WHERE id IN (...)
+     * - 묶음마다 별도 트랜잭션 (기록이 많아도 잠금을 오래 잡지 않음, 묶음당 왕복 4번)
+     * - 임베딩 캐시 등 DB 밖 데이터는 삭제가 끝난 뒤 MemberDataPurger 가 비동기로 정리
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteAllRecords(String username) {
         Member member = memberRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다."));
 
-        List<DailyRecord> records = recordRepository.findAllByMemberIdOrderByRecordDateDesc(member.getId());
-        recordRepository.deleteAll(records);
+        List<String> embeddingCacheKeys = new ArrayList<>();
+        int deleted = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> {
+                List<DailyRecordRepository.RecordContent> chunk =
+                        recordRepository.findContentsByMemberId(member.getId(), Limit.of(deleteChunkSize));
+                if (chunk.isEmpty()) return 0;
+
+                List<Long> ids = chunk.stream().map(DailyRecordRepository.RecordContent::getId).toList();
+                adviceJobRepository.deleteAllByRecordIdIn(ids);
+                adviceRepository.deleteAllByRecordIdIn(ids);
+                recordRepository.deleteAllByIdIn(ids);
+
+                for (DailyRecordRepository.RecordContent record : chunk) {
+                    embeddingCacheKeys.add(geminiService.embeddingCacheKey(record.getContent()));
+                }
+                return chunk.size();
+            });
+
+            deleted += count;
+            if (count < deleteChunkSize) break;
+        }
+
+        System.out.println(">>> [삭제] 회원 " + member.getId() + " 기록 " + deleted + "건 삭제");
+        eventPublisher.publishEvent(new MemberDataDeletedEvent(member.getId(), embeddingCacheKeys));
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package letter5700.vector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 박싱 없는 임베딩 벡터 (float[] 래퍼, 불변)
+ * - 768차원 기준 List<Float>는 Float 객체 768개 + 배열, FloatVector는 float[] 하나 (3KB)
+ * - 임베딩 응답을 받은 직후 한 번만 변환하고, 이후 캐시/검색/저장까지 그대로 사용
+ */
+public final class FloatVector {
+
+    private final float[] values;
+
+    private FloatVector(float[] values) {
+        this.values = values;
+    }
+
+    // 복사 없이 감쌈 (이후 배열을 수정하지 않는 경우에만 사용)
+    public static FloatVector wrap(float[] values) {
+        return new FloatVector(values);
+    }
+
+    // SDK 등에서 받은 List<Float> 를 한 번만 언박싱
+    public static FloatVector copyOf(List<Float> values) {
+        float[] array = new float[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return new FloatVector(array);
+    }
+
+    public int dimensions() {
+        return values.length;
+    }
+
+    public float get(int index) {
+        return values[index];
+    }
+
+    // 방어적 복사본
+    public float[] toArray() {
+        return values.clone();
+    }
+
+    // 내부 배열 직접 접근 (같은 패키지의 검색 엔진 전용, 수정 금지)
+    float[] array() {
+        return values;
+    }
+
+    public double dot(FloatVector other) {
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i] * other.values[i];
+        }
+        return sum;
+    }
+
+    public double norm() {
+        return Math.sqrt(dot(this));
+    }
+
+    // little-endian 바이트 변환 (DB 저장용)
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(values);
+        return buffer.array();
+    }
+
+    public static FloatVector fromBytes(byte[] bytes) {
+        float[] array = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(array);
+        return new FloatVector(array);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FloatVector other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "FloatVector[" + values.length + "]";
+    }
+}
@@ -0,0 +1,207 @@
+package letter5700.vector;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * HNSW 근사 최근접 탐색 인덱스 (정규화된 벡터, 내적 = 코사인 유사도)
+ * - 노드 번호는 InMemoryVectorStore 의 슬롯 번호와 같음 (add 순서대로 0, 1, 2...)
+ * - 삭제는 표시만 하고(tombstone) 탐색 경로로는 계속 사용, 결과에서만 제외
+ * - 동시성은 호출하는 쪽(InMemoryVectorStore 의 읽기/쓰기 락)에서 보장
+ */
+final class HnswIndex {
+
+    // 결과 후보 (노드 번호, 유사도)
+    record Candidate(int node, float score) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingDouble(c -> -c.score());
+    private static final Comparator<Candidate> WORST_FIRST = Comparator.comparingDouble(Candidate::score);
+
+    private final int m;
+    private final int m0;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelFactor;
+    private final SplittableRandom random = new SplittableRandom(5700);
+
+    private final List<float[]> vectors = new ArrayList<>();
+    // neighbors.get(node)[level] = 이웃 노드 번호 배열
+    private final List<int[][]> neighbors = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(int m, int efConstruction, int efSearch) {
+        this.m = m;
+        this.m0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.levelFactor = 1 / Math.log(m);
+    }
+
+    int size() {
+        return vectors.size();
+    }
+
+    void markDeleted(int node) {
+        deleted.set(node);
+    }
+
+    /**
+     * 노드 추가 (vector 는 정규화된 배열, 이후 수정 금지)
+     * - 레벨은 지수 분포로 뽑고, 위 레벨부터 내려오며 각 레벨에서 가까운 이웃과 양방향 연결
+     */
+    int add(float[] vector) {
+        int node = vectors.size();
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelFactor);
+
+        vectors.add(vector);
+        int[][] links = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[l] = new int[0];
+        }
+        neighbors.add(links);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int current = entryPoint;
+        // 새 노드보다 위 레벨은 가장 가까운 한 점만 따라 내려감
+        for (int l = maxLevel; l > level; l--) {
+            current = greedy(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> found = searchLayer(vector, current, efConstruction, l);
+            int limit = l == 0 ? m0 : m;
+            int[] selected = closest(found, m);
+            links[l] = selected;
+            for (int neighbor : selected) {
+                connect(neighbor, node, l, limit);
+            }
+            current = found.get(0).node();
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /**
+     * 유사도 상위 k개 (삭제된 노드 제외)
+     */
+    List<Candidate> search(float[] query, int k) {
+        if (entryPoint < 0) return List.of();
+
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedy(query, current, l);
+        }
+
+        // 삭제된 노드가 섞여 있어도 k개를 채우도록 여유 있게 탐색
+        List<Candidate> found = searchLayer(query, current, Math.max(efSearch, k + deleted.cardinality()), 0);
+        List<Candidate> result = new ArrayList<>(k);
+        for (Candidate candidate : found) {
+            if (deleted.get(candidate.node())) continue;
+            result.add(candidate);
+            if (result.size() == k) break;
+        }
+        return result;
+    }
+
+    // 한 레벨에서 더 가까운 이웃이 없을 때까지 이동
+    private int greedy(float[] query, int start, int level) {
+        int current = start;
+        float best = VectorMath.dot(query, vectors.get(current));
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (int neighbor : neighbors.get(current)[level]) {
+                float score = VectorMath.dot(query, vectors.get(neighbor));
+                if (score > best) {
+                    best = score;
+                    current = neighbor;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // 한 레벨에서 ef 개 후보를 유지하며 탐색 (유사도 높은 순으로 반환)
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(vectors.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(WORST_FIRST);
+
+        Candidate first = new Candidate(start, VectorMath.dot(query, vectors.get(start)));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty()) {
+            Candidate candidate = candidates.poll();
+            if (results.size() >= ef && candidate.score() < results.peek().score()) break;
+
+            int[][] links = neighbors.get(candidate.node());
+            if (level >= links.length) continue;
+            for (int neighbor : links[level]) {
+                if (visited.get(neighbor)) continue;
+                visited.set(neighbor);
+
+                float score = VectorMath.dot(query, vectors.get(neighbor));
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate next = new Candidate(neighbor, score);
+                    candidates.add(next);
+                    results.add(next);
+                    if (results.size() > ef) results.poll();
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(BEST_FIRST);
+        return sorted;
+    }
+
+    // 이웃 목록에 새 노드 추가, 넘치면 가장 먼 이웃부터 잘라냄
+    private void connect(int node, int newNeighbor, int level, int limit) {
+        int[][] links = neighbors.get(node);
+        int[] current = links[level];
+        int[] extended = new int[current.length + 1];
+        System.arraycopy(current, 0, extended, 0, current.length);
+        extended[current.length] = newNeighbor;
+
+        if (extended.length <= limit) {
+            links[level] = extended;
+            return;
+        }
+
+        float[] base = vectors.get(node);
+        List<Candidate> scored = new ArrayList<>(extended.length);
+        for (int neighbor : extended) {
+            scored.add(new Candidate(neighbor, VectorMath.dot(base, vectors.get(neighbor))));
+        }
+        scored.sort(BEST_FIRST);
+        links[level] = closest(scored, limit);
+    }
+
+    private static int[] closest(List<Candidate> sorted, int limit) {
+        int size = Math.min(limit, sorted.size());
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = sorted.get(i).node();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,468 @@
+package letter5700.vector;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 프로세스 내 VectorStore (Qdrant 없이 동작)
+ * - 저장 시 벡터를 정규화해 두고, 검색은 내적(= 코사인 유사도, Qdrant Cosine 점수와 동일)
+ * - 포인트 수가 hnswThreshold 미만이면 전수 비교(SIMD), 이상이면 HNSW 인덱스 사용
+ * - 삭제/덮어쓰기는 tombstone 표시 후, 죽은 슬롯이 많아지면 한 번에 압축
+ * - snapshotPath 를 주면 변경을 모아서 snapshotDelayMs 뒤 한 번 파일로 저장 (종료 시 남은 변경 저장)
+ *   시작 시 메모리 맵으로 읽어서 복원
+ * - partitionField 를 주면 그 payload 값별 슬롯 목록을 따로 유지
+ *   -> 같은 필드로 필터 검색하면 해당 파티션만 전수 비교 (전체 포인트 수와 무관)
+ */
+public class InMemoryVectorStore implements VectorStore, AutoCloseable {
+
+    // 스냅샷 파일 헤더 ("VST1")
+    private static final int SNAPSHOT_MAGIC = 0x56535431;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 한 슬롯 = 포인트 하나 (vector 는 정규화된 배열)
+    private record Slot(UUID id, float[] vector, Map<String, Object> payload) {
+    }
+
+    private final int dimensions;
+    private final int hnswThreshold;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int hnswEfSearch;
+    private final Path snapshotPath;
+    private final String partitionField;
+    private final long snapshotDelayMs;
+
+    // 스냅샷 예약 (snapshotPath 가 있을 때만), 파일 쓰기는 한 번에 하나씩
+    private final ScheduledExecutorService snapshotScheduler;
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+    private final ReentrantLock snapshotWriteLock = new ReentrantLock();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Slot> slots = new ArrayList<>();
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    // partitionField 값 -> 슬롯 번호 (죽은 슬롯은 검색 때 건너뜀, 압축 때 정리)
+    private final Map<String, List<Integer>> partitions = new HashMap<>();
+    private HnswIndex hnsw;
+
+    public InMemoryVectorStore(int dimensions, int hnswThreshold, int hnswM, int hnswEfConstruction,
+                               int hnswEfSearch, Path snapshotPath, String partitionField, long snapshotDelayMs) {
+        this.dimensions = dimensions;
+        this.hnswThreshold = hnswThreshold;
+        this.hnswM = hnswM;
+        this.hnswEfConstruction = hnswEfConstruction;
+        this.hnswEfSearch = hnswEfSearch;
+        this.snapshotPath = snapshotPath;
+        this.partitionField = partitionField;
+        this.snapshotDelayMs = snapshotDelayMs;
+        this.snapshotScheduler = snapshotPath == null ? null : Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("vector-snapshot").daemon().factory());
+    }
+
+    // 스냅샷 파일이 있으면 복원
+    @Override
+    public void ensureCollection() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) return;
+
+        lock.writeLock().lock();
+        try {
+            List<Slot> loaded = readSnapshot(snapshotPath);
+            slots.clear();
+            slotById.clear();
+            dead.clear();
+            partitions.clear();
+            hnsw = null;
+            for (Slot slot : loaded) {
+                append(slot);
+            }
+            System.out.println(">>> 벡터 스냅샷 복원: " + loaded.size() + "건 (" + snapshotPath + ")");
+        } catch (IOException e) {
+            // 깨진 스냅샷은 무시하고 빈 상태로 시작 (지식 동기화가 다시 채움)
+            System.err.println(">>> 벡터 스냅샷 읽기 실패: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<UUID> listIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(slotById.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 메모리 반영은 항상 즉시 완료되므로 wait 는 무시
+    @Override
+    public UpsertResult upsert(List<VectorPoint> points, boolean wait) {
+        for (VectorPoint point : points) {
+            checkDimensions(point.vector());
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (VectorPoint point : points) {
+                Integer previous = slotById.get(point.id());
+                if (previous != null) {
+                    kill(previous);
+                }
+                Map<String, Object> payload = Collections.unmodifiableMap(new HashMap<>(point.payload()));
+                append(new Slot(point.id(), VectorMath.normalize(point.vector().array()), payload));
+            }
+            compactIfNeeded();
+            scheduleSnapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new UpsertResult(points.isEmpty() ? 0 : 1, points.size(), List.of());
+    }
+
+    @Override
+    public void delete(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                Integer slot = slotById.remove(id);
+                if (slot != null) {
+                    kill(slot);
+                }
+            }
+            compactIfNeeded();
+            scheduleSnapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteWhere(String field, String value) {
+        lock.writeLock().lock();
+        try {
+            for (int i : candidates(field, value)) {
+                Slot slot = slots.get(i);
+                if (!dead.get(i) && matches(slot, field, value)) {
+                    slotById.remove(slot.id());
+                    kill(i);
+                }
+            }
+            compactIfNeeded();
+            scheduleSnapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(FloatVector query, int limit) {
+        checkDimensions(query);
+        float[] normalized = VectorMath.normalize(query.array());
+
+        lock.readLock().lock();
+        try {
+            List<HnswIndex.Candidate> candidates = hnsw != null
+                    ? hnsw.search(normalized, limit)
+                    : bruteForce(normalized, limit, null);
+
+            List<SearchHit> hits = new ArrayList<>(candidates.size());
+            for (HnswIndex.Candidate candidate : candidates) {
+                Slot slot = slots.get(candidate.node());
+                hits.add(new SearchHit(slot.id(), candidate.score(), slot.payload()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 필터 검색은 조건에 맞는 슬롯만 전수 비교 (partitionField 면 그 파티션만 훑음)
+    @Override
+    public List<SearchHit> search(FloatVector query, int limit, String field, String value) {
+        checkDimensions(query);
+        float[] normalized = VectorMath.normalize(query.array());
+
+        lock.readLock().lock();
+        try {
+            int[] matching = candidates(field, value).stream()
+                    .filter(i -> matches(slots.get(i), field, value))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            List<HnswIndex.Candidate> candidates = bruteForce(normalized, limit, matching);
+            List<SearchHit> hits = new ArrayList<>(candidates.size());
+            for (HnswIndex.Candidate candidate : candidates) {
+                Slot slot = slots.get(candidate.node());
+                hits.add(new SearchHit(slot.id(), candidate.score(), slot.payload()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 필터 후보 슬롯 번호 (파티션 필드가 아니면 전체)
+    private List<Integer> candidates(String field, String value) {
+        if (field.equals(partitionField)) {
+            return partitions.getOrDefault(value, List.of());
+        }
+        List<Integer> all = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            all.add(i);
+        }
+        return all;
+    }
+
+    private static boolean matches(Slot slot, String field, String value) {
+        Object stored = slot.payload().get(field);
+        return stored != null && String.valueOf(stored).equals(value);
+    }
+
+    // 전체 슬롯(targets == null) 또는 targets 슬롯과 내적 후 상위 limit 개 (작은 쪽이 먼저 나오는 힙으로 유지)
+    private List<HnswIndex.Candidate> bruteForce(float[] query, int limit, int[] targets) {
+        PriorityQueue<HnswIndex.Candidate> top = new PriorityQueue<>(
+                (a, b) -> Float.compare(a.score(), b.score()));
+        int count = targets == null ? slots.size() : targets.length;
+        for (int k = 0; k < count; k++) {
+            int i = targets == null ? k : targets[k];
+            if (dead.get(i)) continue;
+            float score = VectorMath.dot(query, slots.get(i).vector());
+            if (top.size() < limit) {
+                top.add(new HnswIndex.Candidate(i, score));
+            } else if (score > top.peek().score()) {
+                top.poll();
+                top.add(new HnswIndex.Candidate(i, score));
+            }
+        }
+        List<HnswIndex.Candidate> result = new ArrayList<>(top);
+        result.sort((a, b) -> Float.compare(b.score(), a.score()));
+        return result;
+    }
+
+    private void append(Slot slot) {
+        int index = slots.size();
+        slots.add(slot);
+        slotById.put(slot.id(), index);
+        addToPartition(index);
+
+        if (hnsw != null) {
+            hnsw.add(slot.vector());
+        } else if (liveCount() >= hnswThreshold) {
+            rebuildIndex();
+        }
+    }
+
+    private void addToPartition(int index) {
+        if (partitionField == null) return;
+        Object value = slots.get(index).payload().get(partitionField);
+        if (value != null) {
+            partitions.computeIfAbsent(String.valueOf(value), key -> new ArrayList<>()).add(index);
+        }
+    }
+
+    private void kill(int index) {
+        dead.set(index);
+        if (hnsw != null) {
+            hnsw.markDeleted(index);
+        }
+    }
+
+    private int liveCount() {
+        return slots.size() - dead.cardinality();
+    }
+
+    // 죽은 슬롯이 살아있는 슬롯보다 많아지면 슬롯 번호를 다시 매기고 인덱스 재구성
+    private void compactIfNeeded() {
+        int deadCount = dead.cardinality();
+        if (deadCount == 0 || deadCount < liveCount()) return;
+
+        List<Slot> live = new ArrayList<>(slots.size() - deadCount);
+        for (int i = 0; i < slots.size(); i++) {
+            if (!dead.get(i)) live.add(slots.get(i));
+        }
+        slots.clear();
+        slotById.clear();
+        dead.clear();
+        partitions.clear();
+        hnsw = null;
+        for (Slot slot : live) {
+            slots.add(slot);
+            slotById.put(slot.id(), slots.size() - 1);
+            addToPartition(slots.size() - 1);
+        }
+        if (live.size() >= hnswThreshold) {
+            rebuildIndex();
+        }
+    }
+
+    // 현재 슬롯 전체로 HNSW 생성 (죽은 슬롯도 번호를 맞추기 위해 넣고 삭제 표시)
+    private void rebuildIndex() {
+        HnswIndex index = new HnswIndex(hnswM, hnswEfConstruction, hnswEfSearch);
+        for (int i = 0; i < slots.size(); i++) {
+            index.add(slots.get(i).vector());
+            if (dead.get(i)) index.markDeleted(i);
+        }
+        hnsw = index;
+    }
+
+    private void checkDimensions(FloatVector vector) {
+        if (vector.dimensions() != dimensions) {
+            throw new IllegalArgumentException("벡터 차원이 맞지 않습니다: " + vector.dimensions() + " (기대값 " + dimensions + ")");
+        }
+    }
+
+    // 변경 후 호출 (쓰기 락 안): 예약된 저장이 없으면 snapshotDelayMs 뒤로 예약 (그 사이 변경은 같은 저장에 포함)
+    private void scheduleSnapshot() {
+        if (snapshotPath == null) return;
+        if (snapshotDelayMs <= 0) {
+            snapshotPending.set(true);
+            flush();
+        } else if (snapshotPending.compareAndSet(false, true)) {
+            snapshotScheduler.schedule(this::flush, snapshotDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 예약된 스냅샷을 지금 저장 (없으면 아무것도 안 함)
+     * - 슬롯 목록만 읽기 락으로 복사하고, 파일 쓰기는 락 밖에서 (슬롯은 불변이라 그대로 써도 안전)
+     * - 실패하면 로그만 남기고 다음 변경 때 다시 시도
+     */
+    public void flush() {
+        if (snapshotPath == null) return;
+
+        snapshotWriteLock.lock();
+        try {
+            // 복사 전에 내려야 복사 이후의 변경이 새 저장을 예약함
+            if (!snapshotPending.getAndSet(false)) return;
+
+            List<Slot> live;
+            lock.readLock().lock();
+            try {
+                live = new ArrayList<>(liveCount());
+                for (int i = 0; i < slots.size(); i++) {
+                    if (!dead.get(i)) live.add(slots.get(i));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            writeSnapshot(live);
+        } catch (UncheckedIOException e) {
+            System.err.println(">>> " + e.getMessage() + ": " + e.getCause().getMessage());
+        } finally {
+            snapshotWriteLock.unlock();
+        }
+    }
+
+    // 종료 시 남은 변경 저장
+    @Override
+    public void close() {
+        if (snapshotScheduler == null) return;
+        snapshotScheduler.shutdownNow();
+        flush();
+    }
+
+    /**
+     * 스냅샷 저장 (살아있는 슬롯만)
+     * - [magic][dims][count] + count * ([uuid 16바이트][float * dims]) + [payload JSON 길이][payload JSON 배열]
+     * - 임시 파일에 다 쓴 뒤 원자적으로 교체 -> 쓰는 도중 죽어도 이전 스냅샷은 온전함
+     */
+    private void writeSnapshot(List<Slot> live) {
+        try {
+            byte[] payloadJson = objectMapper.writeValueAsBytes(live.stream().map(Slot::payload).toList());
+            ByteBuffer buffer = ByteBuffer.allocate(12 + live.size() * (16 + dimensions * Float.BYTES)
+                            + 4 + payloadJson.length)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(dimensions).putInt(live.size());
+            for (Slot slot : live) {
+                buffer.putLong(slot.id().getMostSignificantBits()).putLong(slot.id().getLeastSignificantBits());
+                buffer.asFloatBuffer().put(slot.vector());
+                buffer.position(buffer.position() + dimensions * Float.BYTES);
+            }
+            buffer.putInt(payloadJson.length).put(payloadJson);
+            buffer.flip();
+
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("벡터 스냅샷 저장 실패: " + snapshotPath, e);
+        }
+    }
+
+    // 메모리 맵으로 읽어서 슬롯 목록 복원
+    private List<Slot> readSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapped.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("스냅샷 형식이 아닙니다.");
+            }
+            int storedDimensions = mapped.getInt();
+            if (storedDimensions != dimensions) {
+                throw new IOException("스냅샷 차원이 다릅니다: " + storedDimensions);
+            }
+            int count = mapped.getInt();
+
+            List<UUID> ids = new ArrayList<>(count);
+            List<float[]> vectors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(new UUID(mapped.getLong(), mapped.getLong()));
+                float[] vector = new float[dimensions];
+                mapped.asFloatBuffer().get(vector);
+                mapped.position(mapped.position() + dimensions * Float.BYTES);
+                vectors.add(vector);
+            }
+
+            byte[] payloadJson = new byte[mapped.getInt()];
+            mapped.get(payloadJson);
+            List<Map<String, Object>> payloads = objectMapper.readValue(payloadJson, new TypeReference<>() {
+            });
+
+            List<Slot> loaded = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                loaded.add(new Slot(ids.get(i), vectors.get(i), payloads.get(i)));
+            }
+            return loaded;
+        }
+    }
+}
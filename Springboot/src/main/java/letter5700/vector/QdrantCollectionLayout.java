@@ -0,0 +1,202 @@
+package letter5700.vector;
+
+import io.qdrant.client.grpc.Collections.BinaryQuantization;
+import io.qdrant.client.grpc.Collections.Disabled;
+import io.qdrant.client.grpc.Collections.Distance;
+import io.qdrant.client.grpc.Collections.HnswConfigDiff;
+import io.qdrant.client.grpc.Collections.QuantizationConfig;
+import io.qdrant.client.grpc.Collections.QuantizationConfigDiff;
+import io.qdrant.client.grpc.Collections.QuantizationType;
+import io.qdrant.client.grpc.Collections.ScalarQuantization;
+import io.qdrant.client.grpc.Collections.VectorParams;
+import io.qdrant.client.grpc.Collections.VectorParamsDiff;
+import io.qdrant.client.grpc.Points.QuantizationSearchParams;
+import io.qdrant.client.grpc.Points.SearchParams;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Qdrant 컬렉션 저장 방식 (설정값 -> 컬렉션 생성 / 제자리 변경 / 검색 파라미터)
+ * - quantization: NONE | SCALAR (int8, 메모리 1/4) | BINARY (1비트, 메모리 1/32 - 고차원 임베딩용)
+ *   양자화 벡터만 RAM 에 두고(alwaysRam), 원본은 디스크(vectorsOnDisk)에서 rescore 할 때만 읽음
+ * - rescore + oversampling: 양자화 점수로 limit * oversampling 개를 뽑고 원본 벡터로 다시 정렬 (정확도 보정)
+ * - hnswM / hnswEfConstruct: 그래프 연결 수 / 생성 시 탐색 폭, searchHnswEf: 검색 시 탐색 폭 (0 = 서버 기본값)
+ * - keywordIndexes: 필터에 쓰는 payload 필드 (keyword 인덱스가 없으면 필터 검색이 전수 비교가 됨)
+ * - tenantField: 테넌트(회원) 구분 payload 필드 (null = 공용 컬렉션)
+ *   전체 HNSW 그래프 대신(m=0) 테넌트별 그래프만 만들고(payload_m), 같은 테넌트 포인트를 모아 저장
+ *   -> 검색은 항상 이 필드로 필터, 비용은 전체 포인트 수가 아니라 그 테넌트의 포인트 수에 비례
+ */
+public record QdrantCollectionLayout(
+        Quantization quantization,
+        float scalarQuantile,
+        boolean quantizedAlwaysRam,
+        boolean rescore,
+        double oversampling,
+        int hnswM,
+        int hnswEfConstruct,
+        boolean hnswOnDisk,
+        int searchHnswEf,
+        boolean vectorsOnDisk,
+        boolean payloadOnDisk,
+        List<String> keywordIndexes,
+        String tenantField) {
+
+    public enum Quantization {
+        NONE, SCALAR, BINARY
+    }
+
+    public QdrantCollectionLayout {
+        keywordIndexes = keywordIndexes.stream().map(String::trim).filter(field -> !field.isEmpty()).toList();
+        tenantField = tenantField == null || tenantField.isBlank() ? null : tenantField.trim();
+    }
+
+    // 같은 저장 방식에 테넌트 구분만 추가 (회원별 컬렉션용)
+    public QdrantCollectionLayout withTenant(String field) {
+        return new QdrantCollectionLayout(quantization, scalarQuantile, quantizedAlwaysRam, rescore, oversampling,
+                hnswM, hnswEfConstruct, hnswOnDisk, searchHnswEf, vectorsOnDisk, payloadOnDisk, keywordIndexes, field);
+    }
+
+    // 설정 문자열 -> Quantization (none | scalar | binary)
+    public static Quantization quantization(String value) {
+        try {
+            return Quantization.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 양자화 방식: " + value + " (none | scalar | binary)");
+        }
+    }
+
+    // 새 컬렉션의 벡터 설정
+    VectorParams vectorParams(int dimensions) {
+        VectorParams.Builder params = VectorParams.newBuilder()
+                .setSize(dimensions)
+                .setDistance(Distance.Cosine)
+                .setHnswConfig(hnswConfig())
+                .setOnDisk(vectorsOnDisk);
+        QuantizationConfig quantizationConfig = quantizationConfig();
+        if (quantizationConfig != null) {
+            params.setQuantizationConfig(quantizationConfig);
+        }
+        return params.build();
+    }
+
+    /**
+     * 기존 컬렉션과 다른 항목만 담은 변경분 (바꿀 것이 없으면 null)
+     * - collectionHnsw: 벡터별 설정이 없을 때 적용되는 컬렉션 기본 HNSW 설정
+     * - 바뀐 항목 이름은 changes 에 추가 (로그용)
+     */
+    VectorParamsDiff diff(VectorParams current, HnswConfigDiff collectionHnsw, List<String> changes) {
+        VectorParamsDiff.Builder diff = VectorParamsDiff.newBuilder();
+
+        HnswConfigDiff hnsw = current.hasHnswConfig() ? current.getHnswConfig() : collectionHnsw;
+        long currentM = hnsw.hasM() ? hnsw.getM() : collectionHnsw.getM();
+        long currentEf = hnsw.hasEfConstruct() ? hnsw.getEfConstruct() : collectionHnsw.getEfConstruct();
+        boolean currentHnswOnDisk = hnsw.hasOnDisk() ? hnsw.getOnDisk() : collectionHnsw.getOnDisk();
+        long currentPayloadM = hnsw.hasPayloadM() ? hnsw.getPayloadM() : collectionHnsw.getPayloadM();
+        HnswConfigDiff desired = hnswConfig();
+        boolean payloadMChanged = tenantField != null && currentPayloadM != desired.getPayloadM();
+        if (currentM != desired.getM() || currentEf != hnswEfConstruct || currentHnswOnDisk != hnswOnDisk || payloadMChanged) {
+            diff.setHnswConfig(desired);
+            changes.add("hnsw(m=" + currentM + "->" + desired.getM() + ", ef_construct=" + currentEf + "->" + hnswEfConstruct
+                    + ", on_disk=" + currentHnswOnDisk + "->" + hnswOnDisk
+                    + (tenantField != null ? ", payload_m=" + currentPayloadM + "->" + desired.getPayloadM() : "") + ")");
+        }
+
+        QuantizationConfig quantizationConfig = quantizationConfig();
+        QuantizationConfig currentQuantization = current.hasQuantizationConfig() ? current.getQuantizationConfig() : null;
+        if (!sameQuantization(currentQuantization, quantizationConfig)) {
+            QuantizationConfigDiff.Builder quantizationDiff = QuantizationConfigDiff.newBuilder();
+            switch (quantization) {
+                case NONE -> quantizationDiff.setDisabled(Disabled.getDefaultInstance());
+                case SCALAR -> quantizationDiff.setScalar(quantizationConfig.getScalar());
+                case BINARY -> quantizationDiff.setBinary(quantizationConfig.getBinary());
+            }
+            diff.setQuantizationConfig(quantizationDiff);
+            changes.add("quantization(" + describe(currentQuantization) + "->" + quantization.name().toLowerCase() + ")");
+        }
+
+        if (current.getOnDisk() != vectorsOnDisk) {
+            diff.setOnDisk(vectorsOnDisk);
+            changes.add("vectors_on_disk(" + current.getOnDisk() + "->" + vectorsOnDisk + ")");
+        }
+        return changes.isEmpty() ? null : diff.build();
+    }
+
+    // 검색 요청 파라미터 (설정할 것이 없으면 null)
+    SearchParams searchParams() {
+        if (searchHnswEf <= 0 && quantization == Quantization.NONE) return null;
+
+        SearchParams.Builder params = SearchParams.newBuilder();
+        if (searchHnswEf > 0) {
+            params.setHnswEf(searchHnswEf);
+        }
+        if (quantization != Quantization.NONE) {
+            QuantizationSearchParams.Builder quantizationParams = QuantizationSearchParams.newBuilder()
+                    .setRescore(rescore);
+            if (rescore && oversampling > 1.0) {
+                quantizationParams.setOversampling(oversampling);
+            }
+            params.setQuantization(quantizationParams);
+        }
+        return params.build();
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        parts.add("quantization=" + quantization.name().toLowerCase()
+                + (quantization == Quantization.NONE ? "" : (rescore ? " (rescore x" + oversampling + ")" : " (no rescore)")));
+        parts.add("hnsw " + (tenantField != null ? "m=0 payload_m=" : "m=") + hnswM + " ef_construct=" + hnswEfConstruct
+                + (searchHnswEf > 0 ? " ef=" + searchHnswEf : ""));
+        parts.add("vectors_on_disk=" + vectorsOnDisk);
+        parts.add("payload_on_disk=" + payloadOnDisk);
+        if (!keywordIndexes.isEmpty()) parts.add("keyword_indexes=" + keywordIndexes);
+        if (tenantField != null) parts.add("tenant=" + tenantField);
+        return String.join(", ", parts);
+    }
+
+    // 테넌트 컬렉션은 전체 그래프 없이(m=0) 테넌트별 그래프만 (payload_m)
+    private HnswConfigDiff hnswConfig() {
+        HnswConfigDiff.Builder hnsw = HnswConfigDiff.newBuilder()
+                .setEfConstruct(hnswEfConstruct)
+                .setOnDisk(hnswOnDisk);
+        if (tenantField != null) {
+            hnsw.setM(0).setPayloadM(hnswM);
+        } else {
+            hnsw.setM(hnswM);
+        }
+        return hnsw.build();
+    }
+
+    private QuantizationConfig quantizationConfig() {
+        return switch (quantization) {
+            case NONE -> null;
+            case SCALAR -> QuantizationConfig.newBuilder()
+                    .setScalar(ScalarQuantization.newBuilder()
+                            .setType(QuantizationType.Int8)
+                            .setQuantile(scalarQuantile)
+                            .setAlwaysRam(quantizedAlwaysRam))
+                    .build();
+            case BINARY -> QuantizationConfig.newBuilder()
+                    .setBinary(BinaryQuantization.newBuilder()
+                            .setAlwaysRam(quantizedAlwaysRam))
+                    .build();
+        };
+    }
+
+    private static boolean sameQuantization(QuantizationConfig current, QuantizationConfig desired) {
+        if (current == null || desired == null) return current == desired;
+        if (current.getQuantizationCase() != desired.getQuantizationCase()) return false;
+        return switch (desired.getQuantizationCase()) {
+            case SCALAR -> current.getScalar().getType() == desired.getScalar().getType()
+                    && Math.abs(current.getScalar().getQuantile() - desired.getScalar().getQuantile()) < 1e-6
+                    && current.getScalar().getAlwaysRam() == desired.getScalar().getAlwaysRam();
+            case BINARY -> current.getBinary().getAlwaysRam() == desired.getBinary().getAlwaysRam();
+            default -> false;
+        };
+    }
+
+    private static String describe(QuantizationConfig config) {
+        return config == null ? "none" : config.getQuantizationCase().name().toLowerCase();
+    }
+}
@@ -0,0 +1,482 @@
+package letter5700.vector;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.qdrant.client.PointIdFactory;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.grpc.Collections.CollectionConfig;
+import io.qdrant.client.grpc.Collections.CollectionInfo;
+import io.qdrant.client.grpc.Collections.CollectionParamsDiff;
+import io.qdrant.client.grpc.Collections.CreateCollection;
+import io.qdrant.client.grpc.Collections.KeywordIndexParams;
+import io.qdrant.client.grpc.Collections.PayloadIndexParams;
+import io.qdrant.client.grpc.Collections.PayloadSchemaType;
+import io.qdrant.client.grpc.Collections.UpdateCollection;
+import io.qdrant.client.grpc.Collections.VectorParams;
+import io.qdrant.client.grpc.Collections.VectorParamsDiff;
+import io.qdrant.client.grpc.Collections.VectorParamsDiffMap;
+import io.qdrant.client.grpc.Collections.VectorParamsMap;
+import io.qdrant.client.grpc.Collections.VectorsConfig;
+import io.qdrant.client.grpc.Collections.VectorsConfigDiff;
+import io.qdrant.client.grpc.Common;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+import io.qdrant.client.grpc.Points.PointStruct;
+import io.qdrant.client.grpc.Points.ScoredPoint;
+import io.qdrant.client.grpc.Points.ScrollPoints;
+import io.qdrant.client.grpc.Points.ScrollResponse;
+import io.qdrant.client.grpc.Points.SearchPoints;
+import io.qdrant.client.grpc.Points.UpsertPoints;
+import letter5700.async.ExternalCallLimiter;
+import letter5700.async.ExternalCallLimiter.Dependency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.qdrant.client.ConditionFactory.matchKeyword;
+import static io.qdrant.client.PointIdFactory.id;
+import static io.qdrant.client.VectorsFactory.namedVectors;
+
+/**
+ * Qdrant 기반 VectorStore (Named Vector 컬렉션 하나)
+ * - 모든 호출은 ~Async 가 기본, 동기 메서드는 결과를 기다리는 얇은 래퍼
+ * - 클라이언트(gRPC 채널)는 QdrantConfig 의 빈 하나를 공유
+ */
+public class QdrantVectorStore implements VectorStore {
+
+    private final QdrantClient qdrantClient;
+    private final ExternalCallLimiter callLimiter;
+
+    // 컬렉션 이름, 벡터 이름, 벡터 차원
+    private final String collection;
+    private final String vectorName;
+    private final int dimensions;
+
+    // 일괄 저장 시 배치 크기 / 동시에 보낼 배치 수
+    private final int batchSize;
+    private final int maxInFlight;
+
+    // [추가] 양자화 / HNSW / 디스크 저장 / payload 인덱스 설정
+    private final QdrantCollectionLayout layout;
+    private final Points.SearchParams searchParams;
+
+    public QdrantVectorStore(QdrantClient qdrantClient, ExternalCallLimiter callLimiter,
+                             String collection, String vectorName, int dimensions,
+                             int batchSize, int maxInFlight, QdrantCollectionLayout layout) {
+        this.qdrantClient = qdrantClient;
+        this.callLimiter = callLimiter;
+        this.collection = collection;
+        this.vectorName = vectorName;
+        this.dimensions = dimensions;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.layout = layout;
+        this.searchParams = layout.searchParams();
+    }
+
+    /**
+     * Qdrant 1.16 Named Vector 기반 컬렉션 준비
+     * - 없으면 layout 대로 생성 (size, distance + HNSW / 양자화 / on_disk)
+     * - 있으면 현재 설정과 비교해서 다른 항목만 UpdateCollection 으로 제자리 변경
+     *   (Qdrant 가 백그라운드에서 인덱스 / 양자화 벡터를 다시 만들고, 그동안 검색은 계속 가능)
+     * - 빠진 keyword payload 인덱스 생성 (테넌트 컬렉션이면 is_tenant 인덱스 포함)
+     */
+    @Override
+    public void ensureCollection() {
+        await(ensureCollectionAsync(), "Failed to create collection");
+    }
+
+    @Override
+    public CompletableFuture<Void> ensureCollectionAsync() {
+        // [수정] 컬렉션 존재 여부 먼저 확인 (에러 방지)
+        return call(() -> qdrantClient.collectionExistsAsync(collection))
+                .thenCompose(exists -> exists ? migrateCollection() : createCollection())
+                .thenCompose(done -> call(() -> qdrantClient.getCollectionInfoAsync(collection)))
+                .thenCompose(this::ensurePayloadIndexes);
+    }
+
+    private CompletableFuture<Void> createCollection() {
+        // Named Vectors로 컬렉션 생성
+        CreateCollection request = CreateCollection.newBuilder()
+                .setCollectionName(collection)
+                .setVectorsConfig(VectorsConfig.newBuilder()
+                        .setParamsMap(VectorParamsMap.newBuilder().putMap(vectorName, layout.vectorParams(dimensions))))
+                .setOnDiskPayload(layout.payloadOnDisk())
+                .build();
+        return call(() -> qdrantClient.createCollectionAsync(request))
+                .thenAccept(result -> System.out.println("Collection created: " + collection + " (" + layout + ")"));
+    }
+
+    // 기존 컬렉션을 layout 에 맞게 변경 (차원 / 거리는 바꿀 수 없으므로 다르면 실패)
+    private CompletableFuture<Void> migrateCollection() {
+        return call(() -> qdrantClient.getCollectionInfoAsync(collection)).thenCompose(info -> {
+            CollectionConfig config = info.getConfig();
+            VectorParams current = config.getParams().getVectorsConfig().getParamsMap().getMapMap().get(vectorName);
+            if (current == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "컬렉션 " + collection + " 에 벡터 " + vectorName + " 가 없습니다. (새 컬렉션 필요)"));
+            }
+            if (current.getSize() != dimensions) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                        "컬렉션 " + collection + " 의 벡터 차원이 다릅니다 (" + current.getSize() + " != " + dimensions
+                                + "). 차원은 제자리에서 바꿀 수 없으니 새 컬렉션으로 다시 적재하세요."));
+            }
+
+            List<String> changes = new ArrayList<>();
+            VectorParamsDiff vectorDiff = layout.diff(current, config.getHnswConfig(), changes);
+            boolean payloadChanged = config.getParams().getOnDiskPayload() != layout.payloadOnDisk();
+            if (payloadChanged) {
+                changes.add("payload_on_disk(" + config.getParams().getOnDiskPayload() + "->" + layout.payloadOnDisk() + ")");
+            }
+            if (changes.isEmpty()) {
+                System.out.println(">>> Collection already exists: " + collection + " (" + layout + ")");
+                return CompletableFuture.completedFuture(null);
+            }
+
+            UpdateCollection.Builder update = UpdateCollection.newBuilder().setCollectionName(collection);
+            if (vectorDiff != null) {
+                update.setVectorsConfig(VectorsConfigDiff.newBuilder()
+                        .setParamsMap(VectorParamsDiffMap.newBuilder().putMap(vectorName, vectorDiff)));
+            }
+            if (payloadChanged) {
+                update.setParams(CollectionParamsDiff.newBuilder().setOnDiskPayload(layout.payloadOnDisk()));
+            }
+            return call(() -> qdrantClient.updateCollectionAsync(update.build()))
+                    .thenAccept(result -> System.out.println(">>> Collection updated in place: " + collection
+                            + " " + changes + " (백그라운드 재색인 중에도 검색 가능)"));
+        });
+    }
+
+    // layout 에 있는데 아직 없는 keyword 인덱스만 생성 (테넌트 필드는 is_tenant 인덱스 -> 테넌트별로 모아 저장)
+    private CompletableFuture<Void> ensurePayloadIndexes(CollectionInfo info) {
+        List<CompletableFuture<?>> created = new ArrayList<>();
+        String tenantField = layout.tenantField();
+        if (tenantField != null && !info.getPayloadSchemaMap().containsKey(tenantField)) {
+            PayloadIndexParams tenantIndex = PayloadIndexParams.newBuilder()
+                    .setKeywordIndexParams(KeywordIndexParams.newBuilder().setIsTenant(true))
+                    .build();
+            created.add(call(() -> qdrantClient.createPayloadIndexAsync(
+                    collection, tenantField, PayloadSchemaType.Keyword, tenantIndex, true, null, null))
+                    .thenAccept(result -> System.out.println(">>> Tenant index created: " + collection + "." + tenantField)));
+        }
+        for (String field : layout.keywordIndexes()) {
+            if (field.equals(tenantField) || info.getPayloadSchemaMap().containsKey(field)) continue;
+            created.add(call(() -> qdrantClient.createPayloadIndexAsync(
+                    collection, field, PayloadSchemaType.Keyword, null, true, null, null))
+                    .thenAccept(result -> System.out.println(">>> Payload index created: " + collection + "." + field)));
+        }
+        return CompletableFuture.allOf(created.toArray(CompletableFuture[]::new));
+    }
+
+    // 저장된 포인트 ID 전체 조회 (벡터/페이로드 없이 ID만 scroll)
+    @Override
+    public Set<UUID> listIds() {
+        Set<UUID> ids = new HashSet<>();
+        Common.PointId offset = null;
+
+        do {
+            ScrollPoints.Builder request = ScrollPoints.newBuilder()
+                    .setCollectionName(collection)
+                    .setLimit(256)
+                    .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(false).build())
+                    .setWithVectors(Points.WithVectorsSelector.newBuilder().setEnable(false).build());
+            if (offset != null) {
+                request.setOffset(offset);
+            }
+
+            ScrollResponse response = await(call(() -> qdrantClient.scrollAsync(request.build())),
+                    "Failed to scroll points");
+            for (Points.RetrievedPoint point : response.getResultList()) {
+                if (point.getId().hasUuid()) {
+                    ids.add(UUID.fromString(point.getId().getUuid()));
+                }
+            }
+            offset = response.hasNextPageOffset() ? response.getNextPageOffset() : null;
+        } while (offset != null);
+
+        return ids;
+    }
+
+    @Override
+    public UpsertResult upsert(List<VectorPoint> points, boolean wait) {
+        return await(upsertAsync(points, wait), "Failed to upsert points");
+    }
+
+    /**
+     * 일괄 Upsert
+     * - batchSize 단위로 묶어서 UpsertPoints 한 번씩 전송
+     * - maxInFlight 개의 전송 줄(lane)이 각자 응답을 받으면 다음 배치를 보냄 (스레드 대기 없음)
+     * - wait=false 면 Qdrant가 반영 완료를 기다리지 않고 바로 응답 (대량 적재용)
+     * - 실패한 배치는 예외 대신 UpsertResult.failures 로 보고
+     */
+    @Override
+    public CompletableFuture<UpsertResult> upsertAsync(List<VectorPoint> points, boolean wait) {
+        List<List<PointStruct>> batches = new ArrayList<>();
+        for (int from = 0; from < points.size(); from += batchSize) {
+            batches.add(points.subList(from, Math.min(from + batchSize, points.size()))
+                    .stream()
+                    .map(point -> toPoint(point, vectorName))
+                    .toList());
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger upserted = new AtomicInteger();
+        List<UpsertResult.Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(maxInFlight, batches.size())];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            lanes[lane] = sendNext(batches, next, wait, upserted, failures);
+        }
+
+        return CompletableFuture.allOf(lanes).thenApply(done -> {
+            List<UpsertResult.Failure> sorted = new ArrayList<>(failures);
+            sorted.sort(Comparator.comparingInt(UpsertResult.Failure::batchIndex));
+            return new UpsertResult(batches.size(), upserted.get(), sorted);
+        });
+    }
+
+    // 남은 배치가 없을 때까지 하나씩 보내는 전송 줄
+    private CompletableFuture<Void> sendNext(List<List<PointStruct>> batches, AtomicInteger next, boolean wait,
+                                             AtomicInteger upserted, List<UpsertResult.Failure> failures) {
+        int index = next.getAndIncrement();
+        if (index >= batches.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<PointStruct> batch = batches.get(index);
+        return call(() -> qdrantClient.upsertAsync(UpsertPoints.newBuilder()
+                        .setCollectionName(collection)
+                        .addAllPoints(batch)
+                        .setWait(wait)
+                        .build()))
+                .handle((result, error) -> {
+                    if (error == null) {
+                        upserted.addAndGet(batch.size());
+                    } else {
+                        List<UUID> ids = batch.stream()
+                                .map(point -> UUID.fromString(point.getId().getUuid()))
+                                .toList();
+                        failures.add(new UpsertResult.Failure(index, ids, error.getMessage()));
+                        System.err.println(">>> 배치 " + index + " 저장 실패 (" + ids.size() + "건): " + error.getMessage());
+                    }
+                    return null;
+                })
+                .thenCompose(done -> sendNext(batches, next, wait, upserted, failures));
+    }
+
+    @Override
+    public void delete(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+
+        List<Common.PointId> pointIds = ids.stream().map(PointIdFactory::id).toList();
+        await(call(() -> qdrantClient.deleteAsync(collection, pointIds)), "Failed to delete points");
+    }
+
+    // 필터로 한 번에 삭제 (ID 를 먼저 조회하지 않음)
+    @Override
+    public void deleteWhere(String field, String value) {
+        Common.Filter filter = Common.Filter.newBuilder().addMust(matchKeyword(field, value)).build();
+        await(call(() -> qdrantClient.deleteAsync(collection, filter)), "Failed to delete points");
+    }
+
+    @Override
+    public List<SearchHit> search(FloatVector query, int limit) {
+        return await(searchAsync(query, limit), "Failed to search");
+    }
+
+    @Override
+    public List<SearchHit> search(FloatVector query, int limit, String field, String value) {
+        return await(searchAsync(query, limit, field, value), "Failed to search");
+    }
+
+    @Override
+    public CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit) {
+        return searchAsync(query, limit, null);
+    }
+
+    // [추가] keyword 필터 검색 (테넌트 필드면 Qdrant 가 그 테넌트의 그래프만 탐색)
+    @Override
+    public CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit, String field, String value) {
+        return searchAsync(query, limit, Common.Filter.newBuilder().addMust(matchKeyword(field, value)).build());
+    }
+
+    /**
+     * Search
+     * - SearchPoints 요청 생성(setCollectionName, addVector, setLimit, setWithPayload)
+     * - Qdrant searchAsync 호출 후 결과를 SearchHit 로 변환
+     */
+    private CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit, Common.Filter filter) {
+        // SearchPoints 요청 생성
+        SearchPoints.Builder searchRequestBuilder = SearchPoints.newBuilder();
+        for (int i = 0; i < query.dimensions(); i++) {
+            searchRequestBuilder.addVector(query.get(i)); // 박싱 없이 추가
+        }
+        searchRequestBuilder
+                .setCollectionName(collection)
+                .setLimit(limit)
+                .setWithPayload(Points.WithPayloadSelector.newBuilder()
+                        .setEnable(true)
+                        .build())
+                .setVectorName(vectorName);  // Named vector 지정
+        // [추가] 검색 시 탐색 폭 / 양자화 rescore
+        if (searchParams != null) {
+            searchRequestBuilder.setParams(searchParams);
+        }
+        if (filter != null) {
+            searchRequestBuilder.setFilter(filter);
+        }
+        SearchPoints searchRequest = searchRequestBuilder.build();
+
+        // 검색 실행
+        return call(() -> qdrantClient.searchAsync(searchRequest))
+                .thenApply(results -> results.stream().map(this::toHit).toList());
+    }
+
+    /**
+     * Qdrant 호출 하나를 CompletableFuture 로 감쌈
+     * - QDRANT 허가를 비동기로 받고, 응답(성공/실패)이 오는 즉시 반납
+     * - 응답 콜백은 gRPC 스레드에서 바로 실행 (가벼운 변환만 이어 붙일 것)
+     */
+    private <T> CompletableFuture<T> call(Supplier<ListenableFuture<T>> request) {
+        return callLimiter.acquireAsync(Dependency.QDRANT).thenCompose(permit -> {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            ListenableFuture<T> future;
+            try {
+                future = request.get();
+            } catch (RuntimeException e) {
+                permit.close();
+                return CompletableFuture.failedFuture(e);
+            }
+            Futures.addCallback(future, new FutureCallback<>() {
+                @Override
+                public void onSuccess(T value) {
+                    permit.close();
+                    result.complete(value);
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    permit.close();
+                    result.completeExceptionally(error);
+                }
+            }, MoreExecutors.directExecutor());
+            return result;
+        });
+    }
+
+    // 동기 메서드용: 결과를 기다리고 실패는 RuntimeException 으로 변환
+    private static <T> T await(CompletableFuture<T> future, String message) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(message, e.getCause());
+        }
+    }
+
+    /**
+     * PointStruct 생성
+     * - payload를 JsonWithInt 형태로 변환
+     * - NamedVectors(map<string, Vector>) 생성 후 Points.Vectors로 래핑
+     * - 벤치마크(src/jmh)에서 직접 호출하므로 package-private
+     */
+    static PointStruct toPoint(VectorPoint point, String vectorName) {
+        // Named vectors 생성 (toDenseVector + VectorsFactory.namedVectors)
+        Points.Vector pointVector = toDenseVector(point.vector());
+        Points.Vectors pointVectors = namedVectors(Map.of(vectorName, pointVector));
+
+        // Payload 변환 (Map<String, Object> → Map<String, JsonWithInt.Value>)
+        Map<String, JsonWithInt.Value> payloadMap = new HashMap<>();
+        for (Map.Entry<String, Object> entry : point.payload().entrySet()) {
+            payloadMap.put(entry.getKey(), convertToValue(entry.getValue()));
+        }
+
+        // PointStruct 생성
+        return PointStruct.newBuilder()
+                .setId(id(point.id()))
+                .setVectors(pointVectors)
+                .putAllPayload(payloadMap)
+                .build();
+    }
+
+    private SearchHit toHit(ScoredPoint point) {
+        Map<String, Object> payload = new HashMap<>();
+        point.getPayloadMap().forEach((key, value) -> payload.put(key, convertFromValue(value)));
+
+        UUID id = point.getId().hasUuid() ? UUID.fromString(point.getId().getUuid()) : null;
+        return new SearchHit(id, point.getScore(), payload);
+    }
+
+    /**
+     * FloatVector → Points.Vector 변환
+     * - VectorFactory.vector()는 List<Float>(또는 Floats.asList)를 거치며 박싱하므로
+     *   DenseVector 빌더에 float를 하나씩 직접 추가
+     */
+    static Points.Vector toDenseVector(FloatVector vector) {
+        Points.DenseVector.Builder dense = Points.DenseVector.newBuilder();
+        for (int i = 0; i < vector.dimensions(); i++) {
+            dense.addData(vector.get(i));
+        }
+        return Points.Vector.newBuilder().setDense(dense).build();
+    }
+
+    /**
+     * Object → JsonWithInt.Value 변환
+     * - Payload 값을 Qdrant가 받을 수 있는 형태로 변환
+     */
+    static JsonWithInt.Value convertToValue(Object obj) {
+        if (obj == null) {
+            return JsonWithInt.Value.newBuilder()
+                    .setNullValue(io.qdrant.client.grpc.JsonWithInt.NullValue.NULL_VALUE)
+                    .build();
+        } else if (obj instanceof String) {
+            return JsonWithInt.Value.newBuilder()
+                    .setStringValue((String) obj)
+                    .build();
+        } else if (obj instanceof Integer) {
+            return JsonWithInt.Value.newBuilder()
+                    .setIntegerValue((Integer) obj)
+                    .build();
+        } else if (obj instanceof Long) {
+            return JsonWithInt.Value.newBuilder()
+                    .setIntegerValue((Long) obj)
+                    .build();
+        } else if (obj instanceof Double) {
+            return JsonWithInt.Value.newBuilder()
+                    .setDoubleValue((Double) obj)
+                    .build();
+        } else if (obj instanceof Boolean) {
+            return JsonWithInt.Value.newBuilder()
+                    .setBoolValue((Boolean) obj)
+                    .build();
+        } else {
+            throw new IllegalArgumentException("Unsupported payload type: " + obj.getClass());
+        }
+    }
+
+    /**
+     * JsonWithInt.Value → Object 변환 (검색 결과 페이로드용)
+     */
+    private static Object convertFromValue(JsonWithInt.Value value) {
+        return switch (value.getKindCase()) {
+            case STRING_VALUE -> value.getStringValue();
+            case INTEGER_VALUE -> value.getIntegerValue();
+            case DOUBLE_VALUE -> value.getDoubleValue();
+            case BOOL_VALUE -> value.getBoolValue();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package letter5700.vector;
+
+import java.util.Map;
+import java.util.UUID;
+
+// 검색 결과 하나 (코사인 유사도 점수 + 페이로드)
+public record SearchHit(UUID id, float score, Map<String, Object> payload) {
+}
@@ -0,0 +1,34 @@
+package letter5700.vector;
+
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * JDK Vector API 내적
+ * - VectorMath.SIMD 가 true 일 때만 로드됨 (모듈이 없으면 이 클래스를 건드리지 않음)
+ * - 이 패키지의 FloatVector 와 이름이 겹쳐서 jdk.incubator.vector.FloatVector 는 전체 이름으로 사용
+ */
+final class SimdMath {
+
+    private static final VectorSpecies<Float> SPECIES = jdk.incubator.vector.FloatVector.SPECIES_PREFERRED;
+
+    private SimdMath() {
+    }
+
+    static float dot(float[] a, float[] b) {
+        var acc = jdk.incubator.vector.FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(a.length);
+        for (; i < bound; i += SPECIES.length()) {
+            var va = jdk.incubator.vector.FloatVector.fromArray(SPECIES, a, i);
+            var vb = jdk.incubator.vector.FloatVector.fromArray(SPECIES, b, i);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        // 남은 꼬리 부분
+        for (; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,15 @@
+package letter5700.vector;
+
+import java.util.List;
+import java.util.UUID;
+
+// 일괄 저장 결과 (실패한 배치만 따로 보고)
+public record UpsertResult(int batches, int upserted, List<Failure> failures) {
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    public record Failure(int batchIndex, List<UUID> ids, String error) {
+    }
+}
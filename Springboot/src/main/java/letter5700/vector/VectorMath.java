@@ -0,0 +1,37 @@
+package letter5700.vector;
+
+/**
+ * 벡터 연산 (내적 / 정규화)
+ * - JVM에 jdk.incubator.vector 모듈이 올라와 있으면 SIMD(SimdMath) 사용
+ * - 없으면 일반 for 루프 (--add-modules 없이 실행해도 동작)
+ */
+final class VectorMath {
+
+    static final boolean SIMD = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorMath() {
+    }
+
+    static float dot(float[] a, float[] b) {
+        return SIMD ? SimdMath.dot(a, b) : scalarDot(a, b);
+    }
+
+    static float scalarDot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    // 단위 벡터로 변환한 복사본 (정규화 후에는 내적 = 코사인 유사도)
+    static float[] normalize(float[] values) {
+        float norm = (float) Math.sqrt(dot(values, values));
+        float[] result = new float[values.length];
+        if (norm == 0f) return result;
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i] / norm;
+        }
+        return result;
+    }
+}
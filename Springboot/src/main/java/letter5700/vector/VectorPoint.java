@@ -0,0 +1,8 @@
+package letter5700.vector;
+
+import java.util.Map;
+import java.util.UUID;
+
+// 저장할 포인트 하나 (ID + 벡터 + 페이로드)
+public record VectorPoint(UUID id, FloatVector vector, Map<String, Object> payload) {
+}
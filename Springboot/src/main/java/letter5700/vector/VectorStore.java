@@ -0,0 +1,71 @@
+package letter5700.vector;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 벡터 저장소 추상화 (컬렉션 하나당 인스턴스 하나)
+ * - QdrantVectorStore: 외부 Qdrant 서버 (gRPC)
+ * - InMemoryVectorStore: 프로세스 내부 검색 엔진 (작고 읽기 위주인 컬렉션, 개발/테스트용)
+ * - field / value 가 붙은 메서드: payload 값이 같은 포인트만 대상 (회원별 컬렉션의 테넌트 필터 등)
+ * - ~Async 메서드: 호출 스레드를 막지 않고 future 로 결과 전달
+ *   (기본 구현은 동기 메서드를 그 자리에서 실행 - 메모리 검색처럼 충분히 빠른 구현용)
+ */
+public interface VectorStore {
+
+    // 컬렉션이 없으면 생성 (있으면 아무것도 안 함)
+    void ensureCollection();
+
+    // 저장된 포인트 ID 전체
+    Set<UUID> listIds();
+
+    // 일괄 저장 (wait=false 면 반영 완료를 기다리지 않음)
+    UpsertResult upsert(List<VectorPoint> points, boolean wait);
+
+    void delete(Collection<UUID> ids);
+
+    // payload field 값이 value 인 포인트 전부 삭제
+    void deleteWhere(String field, String value);
+
+    // 코사인 유사도 상위 limit 개
+    List<SearchHit> search(FloatVector query, int limit);
+
+    // payload field 값이 value 인 포인트 중 코사인 유사도 상위 limit 개
+    List<SearchHit> search(FloatVector query, int limit, String field, String value);
+
+    default CompletableFuture<Void> ensureCollectionAsync() {
+        try {
+            ensureCollection();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    default CompletableFuture<UpsertResult> upsertAsync(List<VectorPoint> points, boolean wait) {
+        try {
+            return CompletableFuture.completedFuture(upsert(points, wait));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    default CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit) {
+        try {
+            return CompletableFuture.completedFuture(search(query, limit));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    default CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit, String field, String value) {
+        try {
+            return CompletableFuture.completedFuture(search(query, limit, field, value));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- 기존 스키마 (ddl-auto=update 시절 Hibernate가 만들던 것과 동일)
+-- 이미 테이블이 있는 DB는 baseline-on-migrate 로 이 버전을 건너뜀
+
+CREATE TABLE member (
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name     varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    role     varchar(255),
+    username varchar(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE daily_record (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    member_id   bigint REFERENCES member (id),
+    record_date timestamp(6),
+    content     TEXT NOT NULL,
+    emotion     varchar(255)
+);
+
+CREATE TABLE advice (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    daily_record_id bigint UNIQUE REFERENCES daily_record (id),
+    content         TEXT NOT NULL,
+    created_at      timestamp(6)
+);
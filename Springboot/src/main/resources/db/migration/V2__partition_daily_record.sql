@@ -0,0 +1,81 @@
+-- daily_record 를 record_date 기준 월 단위 range 파티션 테이블로 전환
+-- - PK 는 (id, record_date) (파티션 키가 PK 에 포함되어야 함), id 는 시퀀스로 계속 전역 유일
+-- - advice -> daily_record FK 는 제거 (파티션 테이블은 id 만으로 참조 불가, 삭제 순서는 애플리케이션이 보장)
+-- - 오래된 달은 파티션 단위로 DETACH/DROP 가능 (행 단위 DELETE 불필요)
+
+-- 1. 기존 테이블 보관 + advice 의 FK 제거
+ALTER TABLE daily_record RENAME TO daily_record_legacy;
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'advice'::regclass
+          AND confrelid = 'daily_record_legacy'::regclass
+          AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE advice DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+-- 2. 파티션 테이블
+CREATE SEQUENCE daily_record_seq;
+
+CREATE TABLE daily_record (
+    id          bigint       NOT NULL DEFAULT nextval('daily_record_seq'),
+    member_id   bigint       REFERENCES member (id),
+    record_date timestamp(6) NOT NULL,
+    content     TEXT         NOT NULL,
+    emotion     varchar(255),
+    PRIMARY KEY (id, record_date)
+) PARTITION BY RANGE (record_date);
+
+ALTER SEQUENCE daily_record_seq OWNED BY daily_record.id;
+
+-- 범위에 맞는 파티션이 없을 때 받아주는 기본 파티션 (평소에는 비어 있어야 함)
+CREATE TABLE daily_record_default PARTITION OF daily_record DEFAULT;
+
+-- 3. 월 파티션 생성 함수 (PartitionMaintenance 가 매일 앞으로 몇 달치를 미리 생성)
+CREATE OR REPLACE FUNCTION ensure_daily_record_partition(month_start date) RETURNS void AS $$
+DECLARE
+    start_date date := date_trunc('month', month_start)::date;
+    partition_name text := 'daily_record_' || to_char(start_date, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF daily_record FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, start_date, (start_date + interval '1 month')::date);
+    END IF;
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ensure_daily_record_partitions(months_ahead int) RETURNS void AS $$
+DECLARE
+    i int;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        PERFORM ensure_daily_record_partition((date_trunc('month', now()) + make_interval(months => i))::date);
+    END LOOP;
+END $$ LANGUAGE plpgsql;
+
+-- 4. 기존 데이터 이전 (있는 달만 파티션 생성, 날짜가 없던 행은 이전 시각으로 채움)
+SELECT ensure_daily_record_partition(month_start)
+FROM (SELECT DISTINCT date_trunc('month', COALESCE(record_date, now()))::date AS month_start
+      FROM daily_record_legacy) months;
+SELECT ensure_daily_record_partitions(3);
+
+INSERT INTO daily_record (id, member_id, record_date, content, emotion)
+SELECT id, member_id, COALESCE(record_date, now()), content, emotion
+FROM daily_record_legacy;
+
+SELECT setval('daily_record_seq', COALESCE((SELECT max(id) FROM daily_record), 0) + 1, false);
+
+DROP TABLE daily_record_legacy;
+
+-- 5. 인덱스 (부모에 만들면 모든 파티션에 자동 생성)
+-- 회원별 최신순 조회 + 키셋 페이지네이션 (member_id, record_date DESC, id DESC)
+-- 정렬 / 커서 조건 / LIMIT 을 인덱스 순서로 처리 (정렬 없이 앞에서부터 limit 개만 읽음)
+-- 커버링 인덱스는 아님: 목록 조회가 content 앞부분과 advice 조인을 읽으므로 찾은 행마다 힙 접근은 남음
+CREATE INDEX idx_daily_record_member_date
+    ON daily_record (member_id, record_date DESC, id DESC);
+-- id 단건 조회는 PK (id, record_date) 의 선두 컬럼으로 처리됨
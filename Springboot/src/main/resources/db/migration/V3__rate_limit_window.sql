@@ -0,0 +1,10 @@
+-- 여러 서버가 함께 쓰는 분당 외부 API 예산 (PostgresRateBudget)
+-- - (name, window_minute) 한 행 = 한 분(epoch 기준 분 번호, 시간대 무관) 동안 모든 인스턴스가 빌려 간 요청 수 / 토큰 수 합계
+-- - 한 시간 지난 행은 애플리케이션이 정리
+CREATE TABLE rate_limit_window (
+    name          varchar(64) NOT NULL,
+    window_minute bigint      NOT NULL,
+    requests      integer     NOT NULL,
+    tokens        bigint      NOT NULL,
+    PRIMARY KEY (name, window_minute)
+);
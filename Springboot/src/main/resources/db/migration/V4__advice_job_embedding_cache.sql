@@ -0,0 +1,27 @@
+-- 편지 생성 작업 큐(AdviceJobService) + 임베딩 영구 캐시(EmbeddingCache) 테이블
+-- - V1(ddl-auto=update 시절 스키마)에는 없던 테이블이라 baseline 으로 V1 을 건너뛴 DB 에도 여기서 생성
+-- - Flyway 도입 전에 ddl-auto=update 로 이미 만들어진 DB 도 있으므로 IF NOT EXISTS
+
+CREATE TABLE IF NOT EXISTS advice_job (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    daily_record_id bigint       NOT NULL,
+    fcm_token       varchar(255),
+    status          varchar(16)  NOT NULL CHECK (status IN ('PENDING', 'RUNNING', 'DEAD')),
+    attempts        integer      NOT NULL,
+    available_at    timestamp(6) NOT NULL,
+    lease_owner     varchar(255),
+    lease_until     timestamp(6),
+    last_error      TEXT,
+    created_at      timestamp(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_advice_job_claim ON advice_job (status, available_at);
+CREATE INDEX IF NOT EXISTS idx_advice_job_record ON advice_job (daily_record_id);
+
+CREATE TABLE IF NOT EXISTS embedding_cache (
+    hash       varchar(64)  PRIMARY KEY,
+    model      varchar(255) NOT NULL,
+    dimensions integer      NOT NULL,
+    vector     BYTEA        NOT NULL,
+    created_at timestamp(6)
+);
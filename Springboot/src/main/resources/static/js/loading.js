@@ -3,6 +3,7 @@
 document.addEventListener('DOMContentLoaded', function() {
     const contentPreview = document.getElementById('contentPreview');
     const timestamp = document.getElementById('timestamp');
+    const letterStream = document.getElementById('letterStream');
 
     // URL 파라미터에서 recordId 가져오기
     const urlParams = new URLSearchParams(window.location.search);
@@ -12,8 +13,8 @@ document.addEventListener('DOMContentLoaded', function() {
         // 기록 상세 정보 가져오기
         loadRecordContent(recordId);
 
-        // AI 응답 대기
-        pollForAdvice(recordId);
+        // AI 응답 대기 (스트리밍 실패 시 폴링으로 대체)
+        streamAdvice(recordId);
     } else {
         // 로컬 스토리지에서 임시 저장된 내용 가져오기
         const savedContent = localStorage.getItem('pendingContent');
@@ -55,6 +56,92 @@ document.addEventListener('DOMContentLoaded', function() {
         }
     }
 
+    // AI 응답 스트리밍 (SSE)
+    // EventSource는 Authorization 헤더를 붙일 수 없어서 fetch 스트림으로 직접 파싱
+    // done / error 없이 스트림이 끝나면 (타임아웃, 연결 끊김) 폴링으로 이어서 확인
+    function streamAdvice(recordId) {
+        let finished = false;
+
+        fetch('/api/records/' + recordId + '/advice/stream', {
+            method: 'GET',
+            headers: {
+                'Authorization': 'Bearer ' + getToken(),
+                'Accept': 'text/event-stream'
+            }
+        })
+        .then(response => {
+            if (!response.ok || !response.body) {
+                throw new Error('Stream not available');
+            }
+            return readEvents(response.body.getReader(), handleEvent);
+        })
+        .then(() => {
+            if (!finished) pollForAdvice(recordId);
+        })
+        .catch(error => {
+            console.error('Error streaming advice:', error);
+            if (!finished) pollForAdvice(recordId);
+        });
+
+        function handleEvent(name, data) {
+            if (name === 'chunk') {
+                appendLetter(data.text);
+            } else if (name === 'done') {
+                finished = true;
+                localStorage.removeItem('pendingContent');
+                window.location.href = '/result/' + recordId;
+            } else if (name === 'error') {
+                finished = true;
+                alert(data.message);
+                window.location.href = '/home';
+            }
+        }
+    }
+
+    // SSE 이벤트 파싱 (event: / data: 줄 단위, 빈 줄에서 이벤트 하나 완성)
+    function readEvents(reader, onEvent) {
+        const decoder = new TextDecoder();
+        let buffer = '';
+        let eventName = 'message';
+        let dataLines = [];
+
+        function pump() {
+            return reader.read().then(({ done, value }) => {
+                if (done) return;
+
+                buffer += decoder.decode(value, { stream: true });
+                const lines = buffer.split(/\r?\n/);
+                buffer = lines.pop();
+
+                lines.forEach(line => {
+                    if (line === '') {
+                        if (dataLines.length > 0) {
+                            onEvent(eventName, JSON.parse(dataLines.join('\n')));
+                        }
+                        eventName = 'message';
+                        dataLines = [];
+                    } else if (line.startsWith('event:')) {
+                        eventName = line.substring(6).trim();
+                    } else if (line.startsWith('data:')) {
+                        dataLines.push(line.substring(5).replace(/^ /, ''));
+                    }
+                });
+
+                return pump();
+            });
+        }
+
+        return pump();
+    }
+
+    // 생성 중인 편지를 미리보기 영역에 이어 붙이기
+    function appendLetter(text) {
+        if (!letterStream) return;
+        letterStream.style.display = 'block';
+        letterStream.textContent += text;
+        letterStream.scrollTop = letterStream.scrollHeight;
+    }
+
     // AI 응답 폴링
     function pollForAdvice(recordId) {
         const pollInterval = setInterval(function() {
@@ -69,8 +156,15 @@ document.addEventListener('DOMContentLoaded', function() {
                 if (data && data.content) {
                     // AI 응답이 준비되면 결과 페이지로 이동
                     clearInterval(pollInterval);
+                    clearTimeout(pollTimeout);
                     localStorage.removeItem('pendingContent');
                     window.location.href = '/result/' + recordId;
+                } else if (data && data.status === 'failed') {
+                    // 재시도를 모두 실패한 경우
+                    clearInterval(pollInterval);
+                    clearTimeout(pollTimeout);
+                    alert('편지를 만들지 못했어요. 잠시 후 다시 시도해주세요.');
+                    window.location.href = '/home';
                 }
             })
             .catch(error => {
@@ -79,7 +173,7 @@ document.addEventListener('DOMContentLoaded', function() {
         }, 2000); // 2초마다 확인
 
         // 최대 5분 후 타임아웃
-        setTimeout(function() {
+        const pollTimeout = setTimeout(function() {
             clearInterval(pollInterval);
             alert('응답 생성에 시간이 너무 오래 걸립니다. 나중에 다시 확인해주세요.');
             window.location.href = '/home';
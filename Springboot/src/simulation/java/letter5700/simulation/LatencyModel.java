@@ -0,0 +1,56 @@
+package letter5700.simulation;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가짜 외부 호출의 지연 분포 (로그정규분포, 중앙값과 p99 로 지정)
+ * - 실제 API 지연처럼 대부분은 중앙값 근처, 가끔 긴 꼬리
+ * - p99 <= median 이면 항상 median 고정
+ * - 한 번의 지연은 p99 의 3배를 넘지 않음 (비현실적인 값이 결과를 흔들지 않도록)
+ */
+public final class LatencyModel {
+
+    // 표준정규분포의 99 백분위수
+    private static final double Z_99 = 2.326;
+
+    private final double medianMs;
+    private final double sigma;
+    private final double maxMs;
+
+    public LatencyModel(long medianMs, long p99Ms) {
+        this.medianMs = Math.max(0, medianMs);
+        this.sigma = medianMs > 0 && p99Ms > medianMs ? Math.log((double) p99Ms / medianMs) / Z_99 : 0;
+        this.maxMs = Math.max(medianMs, p99Ms) * 3.0;
+    }
+
+    public long sampleMillis() {
+        if (medianMs == 0) return 0;
+        double sample = medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.round(Math.min(sample, maxMs));
+    }
+
+    // 한 번 뽑은 지연만큼 대기 (인터럽트되면 플래그를 복원하고 바로 반환)
+    public void pause() {
+        sleep(sampleMillis());
+    }
+
+    static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 확률 rate 로 true (0 이하면 항상 false)
+    static boolean chance(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    @Override
+    public String toString() {
+        return "p50=" + Math.round(medianMs) + "ms, sigma=" + String.format("%.2f", sigma);
+    }
+}
@@ -0,0 +1,156 @@
+package letter5700.simulation;
+
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.CachedContent;
+import com.google.genai.types.Candidate;
+import com.google.genai.types.Content;
+import com.google.genai.types.ContentEmbedding;
+import com.google.genai.types.CreateCachedContentConfig;
+import com.google.genai.types.EmbedContentResponse;
+import com.google.genai.types.GenerateContentConfig;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import com.google.genai.types.Part;
+import letter5700.gemini.GeminiTransport;
+import letter5700.service.GeminiService;
+import letter5700.service.PromptTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 부하 테스트용 가짜 Gemini (SimulationConfig, simulation.gemini.*)
+ * - 호출마다 LatencyModel 만큼 대기 (스트리밍은 첫 조각까지의 지연)
+ * - 스트리밍: chunkChars 글자씩, 초당 charsPerSecond 글자 속도로 letterChars 글자 편지를 보냄
+ * - failureRate 확률로 503, rateLimitRate 확률로 429 (실제 SDK 와 같은 ApiException)
+ * - 임베딩: 텍스트에서 정해지는 768차원 단위 벡터 (같은 텍스트 -> 같은 벡터, 캐시도 실제처럼 동작)
+ * - 감정 분석 요청에는 감정 라벨 하나로 응답
+ */
+public class SimulatedGeminiTransport implements GeminiTransport {
+
+    private static final int EMBEDDING_DIMENSIONS = 768;
+    private static final String LETTER_SENTENCE = "오늘 하루도 정말 수고 많았어요. 천천히 숨을 고르고, 내일의 당신을 믿어 보세요. ";
+
+    private final LatencyModel generateLatency;
+    private final LatencyModel embeddingLatency;
+    private final double failureRate;
+    private final double rateLimitRate;
+    private final int letterChars;
+    private final int chunkChars;
+    private final int charsPerSecond;
+
+    public SimulatedGeminiTransport(LatencyModel generateLatency, LatencyModel embeddingLatency,
+                                    double failureRate, double rateLimitRate,
+                                    int letterChars, int chunkChars, int charsPerSecond) {
+        this.generateLatency = generateLatency;
+        this.embeddingLatency = embeddingLatency;
+        this.failureRate = failureRate;
+        this.rateLimitRate = rateLimitRate;
+        this.letterChars = Math.max(1, letterChars);
+        this.chunkChars = Math.max(1, chunkChars);
+        this.charsPerSecond = charsPerSecond;
+        System.out.println(">>> [시뮬레이션] Gemini 대체 사용 (생성 " + generateLatency + ", 임베딩 " + embeddingLatency
+                + ", 실패율 " + failureRate + ", 429 비율 " + rateLimitRate + ")");
+    }
+
+    @Override
+    public GenerateContentResponse generateContent(String model, String prompt, GenerateContentConfig config) {
+        generateLatency.pause();
+        maybeFail();
+        String text = isEmotion(config) ? emotionLabel(prompt) : letter();
+        return response(text, prompt.length() + text.length());
+    }
+
+    @Override
+    public Stream<GenerateContentResponse> generateContentStream(String model, String prompt, GenerateContentConfig config) {
+        generateLatency.pause();
+        maybeFail();
+        String letter = letter();
+        long chunkDelayMs = charsPerSecond > 0 ? chunkChars * 1000L / charsPerSecond : 0;
+        int chunks = (letter.length() + chunkChars - 1) / chunkChars;
+
+        // 조각은 소비하는 쪽이 꺼낼 때 하나씩 만들어짐 (실제 스트림처럼 조각 사이에 대기)
+        return IntStream.range(0, chunks).mapToObj(i -> {
+            if (i > 0) LatencyModel.sleep(chunkDelayMs);
+            String chunk = letter.substring(i * chunkChars, Math.min(letter.length(), (i + 1) * chunkChars));
+            // 사용량은 마지막 조각에만 (실제 API 와 같음)
+            return i == chunks - 1 ? response(chunk, prompt.length() + letter.length()) : response(chunk, -1);
+        });
+    }
+
+    @Override
+    public EmbedContentResponse embedContent(String model, String text) {
+        embeddingLatency.pause();
+        maybeFail();
+        SplittableRandom random = new SplittableRandom(text.hashCode());
+        List<Float> values = new ArrayList<>(EMBEDDING_DIMENSIONS);
+        double norm = 0;
+        double[] raw = new double[EMBEDDING_DIMENSIONS];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = random.nextDouble(-1, 1);
+            norm += raw[i] * raw[i];
+        }
+        norm = Math.sqrt(norm);
+        for (double value : raw) {
+            values.add((float) (value / norm));
+        }
+        return EmbedContentResponse.builder()
+                .embeddings(ContentEmbedding.builder().values(values))
+                .build();
+    }
+
+    @Override
+    public CachedContent createCachedContent(String model, CreateCachedContentConfig config) {
+        embeddingLatency.pause();
+        Duration ttl = config.ttl().orElse(Duration.ofHours(1));
+        return CachedContent.builder()
+                .name("simulated/" + config.displayName().orElse("cache"))
+                .expireTime(Instant.now().plus(ttl))
+                .build();
+    }
+
+    private void maybeFail() {
+        if (LatencyModel.chance(rateLimitRate)) {
+            throw new ApiException(429, "RESOURCE_EXHAUSTED", "simulated rate limit");
+        }
+        if (LatencyModel.chance(failureRate)) {
+            throw new ApiException(503, "UNAVAILABLE", "simulated upstream failure");
+        }
+    }
+
+    // 감정 분석 요청인지 (컨텍스트 캐시 이름 또는 지시문으로 구분)
+    private static boolean isEmotion(GenerateContentConfig config) {
+        if (config == null) return false;
+        String emotion = PromptTemplate.EMOTION.name().toLowerCase();
+        return config.cachedContent().map(name -> name.endsWith(emotion)).orElse(false)
+                || config.systemInstruction().map(Content::text)
+                .map(PromptTemplate.EMOTION.systemInstruction()::equals).orElse(false);
+    }
+
+    private static String emotionLabel(String prompt) {
+        List<String> labels = GeminiService.EMOTION_LABELS;
+        return labels.get(Math.floorMod(prompt.hashCode(), labels.size()));
+    }
+
+    private String letter() {
+        StringBuilder letter = new StringBuilder(letterChars + LETTER_SENTENCE.length());
+        while (letter.length() < letterChars) {
+            letter.append(LETTER_SENTENCE);
+        }
+        return letter.substring(0, letterChars);
+    }
+
+    private static GenerateContentResponse response(String text, long totalTokens) {
+        GenerateContentResponse.Builder builder = GenerateContentResponse.builder()
+                .candidates(Candidate.builder().content(Content.fromParts(Part.fromText(text))));
+        if (totalTokens >= 0) {
+            builder.usageMetadata(GenerateContentResponseUsageMetadata.builder().totalTokenCount((int) totalTokens));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,36 @@
+package letter5700.simulation;
+
+import letter5700.push.PushResult;
+import letter5700.push.PushSender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 부하 테스트용 가짜 FCM (SimulationConfig, simulation.fcm.*)
+ * - 멀티캐스트 한 번마다 LatencyModel 만큼 대기
+ * - 토큰마다 failureRate 확률로 RETRYABLE (디스패처 재시도 경로까지 부하에 포함)
+ */
+public class SimulatedPushSender implements PushSender {
+
+    private final LatencyModel latency;
+    private final double failureRate;
+
+    public SimulatedPushSender(LatencyModel latency, double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        System.out.println(">>> [시뮬레이션] FCM 대체 사용 (" + latency + ", 실패율 " + failureRate + ")");
+    }
+
+    @Override
+    public List<PushResult> sendMulticast(String title, String body, List<String> tokens) {
+        latency.pause();
+        List<PushResult> results = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            results.add(LatencyModel.chance(failureRate)
+                    ? new PushResult(PushResult.Status.RETRYABLE, "UNAVAILABLE (simulated)")
+                    : PushResult.SENT);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,103 @@
+package letter5700.simulation;
+
+import letter5700.vector.FloatVector;
+import letter5700.vector.SearchHit;
+import letter5700.vector.UpsertResult;
+import letter5700.vector.VectorPoint;
+import letter5700.vector.VectorStore;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 부하 테스트용 가짜 Qdrant (SimulationConfig, simulation.qdrant.*)
+ * - 실제 검색은 프로세스 내 저장소(delegate)에 맡기고, 네트워크 왕복처럼 지연 / 실패만 더함
+ * - ~Async 메서드는 가상 스레드에서 실행 (Qdrant 클라이언트처럼 호출 스레드를 막지 않음)
+ */
+public class SimulatedVectorStore implements VectorStore, AutoCloseable {
+
+    private final VectorStore delegate;
+    private final LatencyModel latency;
+    private final double failureRate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SimulatedVectorStore(VectorStore delegate, LatencyModel latency, double failureRate) {
+        this.delegate = delegate;
+        this.latency = latency;
+        this.failureRate = failureRate;
+        System.out.println(">>> [시뮬레이션] Qdrant 대체 사용 (" + latency + ", 실패율 " + failureRate + ")");
+    }
+
+    @Override
+    public void ensureCollection() {
+        delegate.ensureCollection();
+    }
+
+    @Override
+    public Set<UUID> listIds() {
+        roundTrip("listIds");
+        return delegate.listIds();
+    }
+
+    @Override
+    public UpsertResult upsert(List<VectorPoint> points, boolean wait) {
+        roundTrip("upsert");
+        return delegate.upsert(points, wait);
+    }
+
+    @Override
+    public void delete(Collection<UUID> ids) {
+        roundTrip("delete");
+        delegate.delete(ids);
+    }
+
+    @Override
+    public void deleteWhere(String field, String value) {
+        roundTrip("delete");
+        delegate.deleteWhere(field, value);
+    }
+
+    @Override
+    public List<SearchHit> search(FloatVector query, int limit) {
+        roundTrip("search");
+        return delegate.search(query, limit);
+    }
+
+    @Override
+    public List<SearchHit> search(FloatVector query, int limit, String field, String value) {
+        roundTrip("search");
+        return delegate.search(query, limit, field, value);
+    }
+
+    @Override
+    public CompletableFuture<UpsertResult> upsertAsync(List<VectorPoint> points, boolean wait) {
+        return CompletableFuture.supplyAsync(() -> upsert(points, wait), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit) {
+        return CompletableFuture.supplyAsync(() -> search(query, limit), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<SearchHit>> searchAsync(FloatVector query, int limit, String field, String value) {
+        return CompletableFuture.supplyAsync(() -> search(query, limit, field, value), executor);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void roundTrip(String operation) {
+        latency.pause();
+        if (LatencyModel.chance(failureRate)) {
+            throw new RuntimeException("simulated Qdrant " + operation + " failure");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package letter5700.simulation;
+
+import letter5700.config.VectorStoreConfig;
+import letter5700.gemini.GeminiTransport;
+import letter5700.push.PushSender;
+import letter5700.service.DiaryMemoryService;
+import letter5700.vector.InMemoryVectorStore;
+import letter5700.vector.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 부하 테스트용 외부 의존성 대체 (simulation 소스셋 - 운영 jar 에는 들어가지 않음)
+ * - ./gradlew bootRunSimulated 로만 클래스패스에 올라감 (loadtest 프로필, simulation.enabled=true)
+ * - simulation.enabled=true 면 GeminiConfig / PushConfig / VectorStoreConfig 의 같은 이름 빈은 만들어지지 않음
+ * - 지연 / 실패 비율은 simulation.* (application-loadtest.properties)
+ */
+@Configuration
+@ConditionalOnProperty(name = "simulation.enabled", havingValue = "true")
+public class SimulationConfig {
+
+    // 가짜 Gemini (API 할당량 없이 부하 테스트)
+    @Bean
+    public GeminiTransport geminiTransport(
+            @Value("${simulation.gemini.median-ms:1500}") long medianMs,
+            @Value("${simulation.gemini.p99-ms:6000}") long p99Ms,
+            @Value("${simulation.gemini.embedding.median-ms:80}") long embeddingMedianMs,
+            @Value("${simulation.gemini.embedding.p99-ms:400}") long embeddingP99Ms,
+            @Value("${simulation.gemini.failure-rate:0}") double failureRate,
+            @Value("${simulation.gemini.rate-limit-rate:0}") double rateLimitRate,
+            @Value("${simulation.gemini.letter-chars:3000}") int letterChars,
+            @Value("${simulation.gemini.chunk-chars:50}") int chunkChars,
+            @Value("${simulation.gemini.chars-per-second:500}") int charsPerSecond) {
+        return new SimulatedGeminiTransport(
+                new LatencyModel(medianMs, p99Ms), new LatencyModel(embeddingMedianMs, embeddingP99Ms),
+                failureRate, rateLimitRate, letterChars, chunkChars, charsPerSecond);
+    }
+
+    // 가짜 FCM (전송 지연 / 실패만 흉내)
+    @Bean
+    public PushSender pushSender(
+            @Value("${simulation.fcm.median-ms:100}") long medianMs,
+            @Value("${simulation.fcm.p99-ms:500}") long p99Ms,
+            @Value("${simulation.fcm.failure-rate:0}") double failureRate) {
+        return new SimulatedPushSender(new LatencyModel(medianMs, p99Ms), failureRate);
+    }
+
+    // 지식 검색: 프로세스 내 검색 + Qdrant 왕복 지연 / 실패
+    @Bean
+    public VectorStore knowledgeVectorStore(
+            @Value("${rag.memory.hnsw-threshold:2000}") int hnswThreshold,
+            @Value("${rag.memory.hnsw-m:16}") int hnswM,
+            @Value("${rag.memory.hnsw-ef-construction:100}") int hnswEfConstruction,
+            @Value("${rag.memory.hnsw-ef-search:64}") int hnswEfSearch,
+            @Value("${simulation.qdrant.median-ms:5}") long medianMs,
+            @Value("${simulation.qdrant.p99-ms:40}") long p99Ms,
+            @Value("${simulation.qdrant.failure-rate:0}") double failureRate) {
+        return new SimulatedVectorStore(
+                new InMemoryVectorStore(VectorStoreConfig.KNOWLEDGE_DIMENSIONS, hnswThreshold, hnswM,
+                        hnswEfConstruction, hnswEfSearch, null, null, 0),
+                new LatencyModel(medianMs, p99Ms), failureRate);
+    }
+
+    // 지난 일기 기억: memberId 파티션 전수 비교 + Qdrant 왕복 지연 / 실패
+    @Bean
+    public VectorStore diaryMemoryVectorStore(
+            @Value("${simulation.qdrant.median-ms:5}") long medianMs,
+            @Value("${simulation.qdrant.p99-ms:40}") long p99Ms,
+            @Value("${simulation.qdrant.failure-rate:0}") double failureRate) {
+        return new SimulatedVectorStore(
+                new InMemoryVectorStore(VectorStoreConfig.KNOWLEDGE_DIMENSIONS, Integer.MAX_VALUE, 0, 0, 0,
+                        null, DiaryMemoryService.MEMBER_FIELD, 0),
+                new LatencyModel(medianMs, p99Ms), failureRate);
+    }
+}
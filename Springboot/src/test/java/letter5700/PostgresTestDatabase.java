@@ -0,0 +1,41 @@
+package letter5700;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * DB 통합 테스트용 Postgres (스키마는 Flyway 마이그레이션이 생성)
+ * - -Ptest.postgres.url 이 있으면 그 DB 사용 (Docker 가 없는 환경, 비어 있는 DB 권장)
+ * - 없으면 Testcontainers 로 postgres:16 컨테이너 하나를 띄워 모든 테스트가 공유
+ * - 둘 다 없으면 available() 이 false -> 테스트 쪽에서 건너뜀
+ */
+public final class PostgresTestDatabase {
+
+    private static final String URL = System.getProperty("test.postgres.url", "");
+
+    private static PostgreSQLContainer<?> container;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static boolean available() {
+        return !URL.isBlank() || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static synchronized void register(DynamicPropertyRegistry registry) {
+        if (!URL.isBlank()) {
+            registry.add("spring.datasource.url", () -> URL);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+            return;
+        }
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+}
@@ -0,0 +1,46 @@
+package letter5700.async;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회로 차단기 상태 전환 (OPEN 시간 0 -> 열리자마자 HALF_OPEN)
+ */
+class CircuitBreakerTest {
+
+    private CircuitBreaker openedBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 2, 0.5, 0);
+        breaker.tryAcquire();
+        breaker.onFailure();
+        breaker.tryAcquire();
+        breaker.onFailure();
+        return breaker;
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbe() {
+        CircuitBreaker breaker = openedBreaker();
+        assertThat(breaker.currentState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.currentState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void cancelledProbeReleasesHalfOpenSlot() {
+        CircuitBreaker breaker = openedBreaker();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // 시험 호출이 결과 없이 끝남 (헤지 경쟁에서 짐 / 종료 중 중단)
+        breaker.onCancelled();
+
+        assertThat(breaker.currentState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
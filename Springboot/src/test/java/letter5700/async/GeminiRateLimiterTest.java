@@ -0,0 +1,120 @@
+package letter5700.async;
+
+import com.google.genai.errors.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 속도 제한기 단위 테스트 (DB 없음)
+ * - 분당 요청 버킷, AIMD 동시 호출 상한, 공유 예산 빌리기가 lock 밖에서 한 번만 실행되는지
+ */
+class GeminiRateLimiterTest {
+
+    private static final ApiException THROTTLED = new ApiException(429, "RESOURCE_EXHAUSTED", "quota");
+
+    private static GeminiRateLimiter limiter(int requestsPerMinute, int maxConcurrency, long cooldownMs) {
+        return new GeminiRateLimiter(requestsPerMinute, 1_000_000, 1, maxConcurrency, 3.0, cooldownMs, null, 0, 0);
+    }
+
+    private static double gauge(SimpleMeterRegistry registry, String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    @Test
+    void requestBucketBlocksOnceMinuteBudgetIsSpent() throws Exception {
+        GeminiRateLimiter limiter = limiter(2, 8, 0);
+        limiter.acquire("embedding", 10).close();
+        limiter.acquire("embedding", 10).close();
+
+        // 분당 2건 -> 다음 토큰은 약 30초 뒤
+        Thread third = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.acquire("embedding", 10).close();
+            } catch (IllegalStateException interrupted) {
+                // 테스트 종료 시 인터럽트
+            }
+        });
+        assertThat(third.join(Duration.ofMillis(300))).isFalse();
+        third.interrupt();
+        assertThat(third.join(Duration.ofSeconds(1))).isTrue();
+    }
+
+    @Test
+    void concurrencyLimitHoldsCallersUntilPermitIsReturned() throws Exception {
+        GeminiRateLimiter limiter = limiter(1000, 1, 0);
+        GeminiRateLimiter.Permit first = limiter.acquire("advice", 10);
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> limiter.acquire("advice", 10).close());
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+
+        first.close();
+        second.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void throttlingHalvesLimitOncePerCooldownAndSuccessGrowsItBack() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GeminiRateLimiter limiter = limiter(1000, 8, 200);
+        limiter.bindTo(registry);
+
+        long started = System.nanoTime();
+        limiter.onFailure(THROTTLED);
+        limiter.onFailure(THROTTLED);
+        assertThat(gauge(registry, "gemini.limiter.concurrency_limit")).isEqualTo(4.0);
+        assertThat(registry.get("gemini.limiter.decreases").functionCounter().count()).isEqualTo(1.0);
+
+        // 429 이외의 실패는 상한을 바꾸지 않음
+        limiter.onFailure(new ApiException(500, "INTERNAL", "boom"));
+        assertThat(gauge(registry, "gemini.limiter.concurrency_limit")).isEqualTo(4.0);
+
+        // cooldown(첫 429 부터 200ms) 동안은 허가를 내주지 않음
+        try (var permit = limiter.acquire("advice", 10)) {
+            assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+            permit.success(-1);
+        }
+        // 가산 증가: +1/상한
+        assertThat(gauge(registry, "gemini.limiter.concurrency_limit")).isEqualTo(4.25);
+    }
+
+    @Test
+    void sharedLeaseRunsOutsideTheLockAndIsSharedByWaiters() throws Exception {
+        CountDownLatch leasing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger leases = new AtomicInteger();
+        SharedRateBudget slowBudget = (window, requests, tokens) -> {
+            leases.incrementAndGet();
+            leasing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        };
+        GeminiRateLimiter limiter = new GeminiRateLimiter(1000, 1_000_000, 1, 8, 3.0, 0, slowBudget, 10, 1000);
+
+        CompletableFuture<?>[] callers = new CompletableFuture<?>[3];
+        for (int i = 0; i < callers.length; i++) {
+            callers[i] = CompletableFuture.runAsync(() -> limiter.acquire("embedding", 10).close());
+        }
+        assertThat(leasing.await(1, TimeUnit.SECONDS)).isTrue();
+
+        // DB 호출이 lock 을 잡고 있지 않으므로 다른 스레드가 lock 을 바로 얻음
+        CompletableFuture<Void> locking = CompletableFuture.runAsync(() -> limiter.onFailure(THROTTLED));
+        locking.get(1, TimeUnit.SECONDS);
+
+        release.countDown();
+        CompletableFuture.allOf(callers).get(2, TimeUnit.SECONDS);
+        // 묶음 하나(10건)로 세 호출 모두 처리
+        assertThat(leases.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,50 @@
+package letter5700.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import letter5700.async.AdviceExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.Async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 편지 생성 Executor 가 Boot 기본 Executor 를 대신하지 않는지
+ * - applicationTaskExecutor 는 그대로 생성, 일반 @Async 는 그쪽(task-*)에서 실행
+ * - adviceExecutor 는 이름으로만 조회
+ */
+class AsyncConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(AsyncConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(ThreadRecorder.class);
+
+    static class ThreadRecorder {
+        @Async
+        public CompletableFuture<String> threadName() {
+            return CompletableFuture.completedFuture(Thread.currentThread().getName());
+        }
+    }
+
+    @Test
+    void adviceExecutorLeavesBootTaskExecutorForOtherAsyncMethods() {
+        contextRunner.run(context -> {
+            assertThat(context).hasBean("applicationTaskExecutor");
+            assertThat(context.getBean("adviceExecutor")).isInstanceOf(AdviceExecutor.class);
+
+            String thread = context.getBean(ThreadRecorder.class).threadName().get(5, TimeUnit.SECONDS);
+            assertThat(thread).startsWith("task-");
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            assertThat(registry.find("advice.executor.capacity").gauge()).isNotNull();
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package letter5700.repository;
+
+import letter5700.PostgresTestDatabase;
+import letter5700.dto.RecordSummary;
+import letter5700.entity.DailyRecord;
+import letter5700.entity.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Flyway 마이그레이션을 실제 Postgres 에 적용한 결과
+ * - 빈 DB 와 ddl-auto=update 시절 DB(baseline 으로 V1 건너뜀) 모두 필요한 테이블이 전부 생기는지
+ * - daily_record 가 월 파티션 테이블이고 기록이 해당 달 파티션에 들어가는지
+ * - 목록 인덱스가 모든 파티션에 있고 키셋 조회가 그 순서대로 동작하는지
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlywayMigrationTest {
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(PostgresTestDatabase.available(), "Docker 또는 -Ptest.postgres.url 필요");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    // ddl-auto=update 시절 스키마를 만들어 두는 별도 스키마 (테스트가 끝나면 삭제)
+    private static final String LEGACY_SCHEMA = "legacy_baseline";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private DailyRecordRepository recordRepository;
+
+    @AfterEach
+    void cleanUp() {
+        recordRepository.deleteAll();
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    void appliesAllMigrations() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL ORDER BY installed_rank",
+                String.class);
+        assertThat(versions).contains("1", "2", "3", "4");
+        for (String table : List.of("advice_job", "embedding_cache", "rate_limit_window")) {
+            assertThat(tableExists("public", table)).as(table).isTrue();
+        }
+    }
+
+    @Test
+    void upgradesLegacySchemaFromBaseline() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + LEGACY_SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + LEGACY_SCHEMA);
+        try {
+            // Flyway 도입 전 ddl-auto=update 가 만들어 둔 테이블 + 데이터
+            jdbcTemplate.execute("""
+                    CREATE TABLE legacy_baseline.member (
+                        id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        name varchar(255) NOT NULL, password varchar(255) NOT NULL,
+                        role varchar(255), username varchar(255) NOT NULL UNIQUE);
+                    CREATE TABLE legacy_baseline.daily_record (
+                        id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        member_id bigint REFERENCES legacy_baseline.member (id), record_date timestamp(6),
+                        content TEXT NOT NULL, emotion varchar(255));
+                    CREATE TABLE legacy_baseline.advice (
+                        id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        daily_record_id bigint UNIQUE REFERENCES legacy_baseline.daily_record (id),
+                        content TEXT NOT NULL, created_at timestamp(6));
+                    INSERT INTO legacy_baseline.member (id, name, password, role, username)
+                        VALUES (1, '이름', 'pw', 'USER', 'legacy');
+                    INSERT INTO legacy_baseline.daily_record (id, member_id, record_date, content, emotion)
+                        VALUES (7, 1, now(), '예전 일기', '평온');
+                    INSERT INTO legacy_baseline.advice (daily_record_id, content, created_at)
+                        VALUES (7, '예전 편지', now());
+                    """);
+
+            // 운영 설정과 같은 baseline 옵션으로 이 스키마에 마이그레이션
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .schemas(LEGACY_SCHEMA)
+                    .baselineOnMigrate(true)
+                    .baselineVersion("1")
+                    .load()
+                    .migrate();
+
+            for (String table : List.of("advice_job", "embedding_cache", "rate_limit_window")) {
+                assertThat(tableExists(LEGACY_SCHEMA, table)).as(table).isTrue();
+            }
+            assertThat(jdbcTemplate.queryForObject("""
+                    SELECT count(*) FROM pg_partitioned_table
+                    WHERE partrelid = 'legacy_baseline.daily_record'::regclass
+                    """, Integer.class)).isEqualTo(1);
+            // 기존 기록은 파티션 테이블로 옮겨지고 새 기록 ID 는 그 다음부터
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT content FROM legacy_baseline.daily_record WHERE id = 7", String.class)).isEqualTo("예전 일기");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT nextval('legacy_baseline.daily_record_seq')", Long.class)).isEqualTo(8L);
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + LEGACY_SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void dailyRecordIsPartitionedByMonth() {
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_partitioned_table
+                WHERE partrelid = 'daily_record'::regclass AND partstrat = 'r'
+                """, Integer.class)).isEqualTo(1);
+
+        // 이번 달부터 3달 뒤까지 + 기본 파티션
+        List<String> partitions = partitions();
+        assertThat(partitions).contains("daily_record_default");
+        for (int i = 0; i <= 3; i++) {
+            assertThat(partitions).contains(partitionName(LocalDate.now().plusMonths(i)));
+        }
+
+        // 기록은 날짜에 맞는 달 파티션으로 (기본 파티션은 비어 있어야 함)
+        Member member = memberRepository.save(new Member("migration-route", "pw", "이름", "USER"));
+        DailyRecord record = recordRepository.save(new DailyRecord(member, "내용", "기쁨", LocalDateTime.now()));
+        String partition = jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM daily_record WHERE id = ?", String.class, record.getId());
+        assertThat(partition).isEqualTo(partitionName(LocalDate.now()));
+    }
+
+    @Test
+    void listIndexExistsOnEveryPartition() {
+        List<String> indexed = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_index x ON x.indrelid = c.oid
+                JOIN pg_inherits ii ON ii.inhrelid = x.indexrelid
+                WHERE i.inhparent = 'daily_record'::regclass
+                  AND ii.inhparent = 'idx_daily_record_member_date'::regclass
+                """, String.class);
+        assertThat(indexed).containsExactlyInAnyOrderElementsOf(partitions());
+    }
+
+    @Test
+    void keysetPagesFollowIndexOrderAcrossPartitions() {
+        Member member = memberRepository.save(new Member("migration-keyset", "pw", "이름", "USER"));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        // 같은 시각 두 건 (id 로 순서 결정) + 다음 달 파티션에 한 건
+        DailyRecord first = recordRepository.save(new DailyRecord(member, "a", "기쁨", now));
+        DailyRecord second = recordRepository.save(new DailyRecord(member, "b", "슬픔", now));
+        DailyRecord later = recordRepository.save(new DailyRecord(member, "c", "평온", now.plusMonths(1)));
+
+        List<RecordSummary> page1 = recordRepository.findSummaries(member.getId(), Limit.of(2));
+        assertThat(page1).extracting(RecordSummary::getId).containsExactly(later.getId(), second.getId());
+
+        RecordSummary cursor = page1.get(1);
+        List<RecordSummary> page2 = recordRepository.findSummariesBefore(
+                member.getId(), cursor.getDate(), cursor.getId(), Limit.of(2));
+        assertThat(page2).extracting(RecordSummary::getId).containsExactly(first.getId());
+    }
+
+    private boolean tableExists(String schema, String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, schema + "." + table);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT inhrelid::regclass::text FROM pg_inherits WHERE inhparent = 'daily_record'::regclass",
+                String.class);
+    }
+
+    private static String partitionName(LocalDate date) {
+        return "daily_record_" + date.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+}
@@ -0,0 +1,83 @@
+package letter5700.security;
+
+import letter5700.PostgresTestDatabase;
+import letter5700.entity.Member;
+import letter5700.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 회원 역할 변경 / 삭제가 커밋되면 인증 캐시에서 빠지는지 (Member 엔티티 리스너)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PrincipalCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PrincipalCacheEvictorTest {
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(PostgresTestDatabase.available(), "Docker 또는 -Ptest.postgres.url 필요");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        memberRepository.deleteAll();
+    }
+
+    private UserDetails cached(String username) {
+        return principalCache.get(username, name -> User.withUsername(name).password("").roles("CACHED").build());
+    }
+
+    @Test
+    void roleChangeEvictsCachedPrincipal() {
+        memberRepository.save(new Member("evict-role", "pw", "이름", "USER"));
+        UserDetails before = cached("evict-role");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findByUsername("evict-role").orElseThrow().setRole("ADMIN"));
+
+        assertThat(cached("evict-role")).isNotSameAs(before);
+    }
+
+    @Test
+    void deleteEvictsCachedPrincipal() {
+        Member member = memberRepository.save(new Member("evict-delete", "pw", "이름", "USER"));
+        UserDetails before = cached("evict-delete");
+        assertThat(cached("evict-delete")).isSameAs(before);
+
+        memberRepository.delete(member);
+
+        assertThat(cached("evict-delete")).isNotSameAs(before);
+    }
+}
@@ -0,0 +1,156 @@
+package letter5700.service;
+
+import letter5700.PostgresTestDatabase;
+import letter5700.entity.AdviceJob;
+import letter5700.repository.AdviceJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 작업 큐 리스 테스트 (서버 두 대 = owner 두 개)
+ * - 메서드마다 각자 트랜잭션으로 커밋 (실제 워커처럼, 테스트 트랜잭션으로 묶지 않음)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AdviceJobService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdviceJobServiceTest {
+
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(PostgresTestDatabase.available(), "Docker 또는 -Ptest.postgres.url 필요");
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private AdviceJobService adviceJobService;
+
+    @Autowired
+    private AdviceJobRepository adviceJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        adviceJobRepository.deleteAll();
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndTheFirstWorkerIsFencedOut() {
+        Long jobId = enqueue(1L);
+        assertThat(adviceJobService.claim("node-a", 10)).extracting(AdviceJob::getId).containsExactly(jobId);
+
+        expireLease(jobId);
+        List<AdviceJob> reclaimed = adviceJobService.claim("node-b", 10);
+        assertThat(reclaimed).extracting(AdviceJob::getId).containsExactly(jobId);
+        assertThat(reclaimed.get(0).getAttempts()).isEqualTo(2);
+
+        // 첫 서버는 리스를 잃었으므로 어떤 결과도 반영하지 못함
+        assertThat(adviceJobService.renew(jobId, "node-a")).isFalse();
+        assertThat(adviceJobService.complete(jobId, "node-a")).isFalse();
+        assertThat(adviceJobService.fail(jobId, "node-a", "timeout")).isFalse();
+        assertThat(adviceJobService.defer(jobId, "node-a", 30, "circuit open")).isFalse();
+        assertThat(adviceJobService.release(jobId, "node-a")).isFalse();
+
+        AdviceJob current = adviceJobRepository.findById(jobId).orElseThrow();
+        assertThat(current.getStatus()).isEqualTo(AdviceJob.Status.RUNNING);
+        assertThat(current.getLeaseOwner()).isEqualTo("node-b");
+        assertThat(current.getLastError()).isNull();
+
+        // 새 소유자는 연장 / 완료 가능
+        assertThat(adviceJobService.renew(jobId, "node-b")).isTrue();
+        assertThat(adviceJobService.complete(jobId, "node-b")).isTrue();
+        assertThat(adviceJobRepository.findById(jobId)).isEmpty();
+    }
+
+    @Test
+    void ownerCannotCompleteOnceItsLeaseHasExpired() {
+        Long jobId = enqueue(2L);
+        adviceJobService.claim("node-a", 10);
+        expireLease(jobId);
+
+        // 아직 아무도 다시 가져가지 않았어도 만료된 리스로는 삭제하지 않음 (곧 다른 서버가 가져갈 수 있음)
+        assertThat(adviceJobService.complete(jobId, "node-a")).isFalse();
+        assertThat(adviceJobRepository.findById(jobId)).isPresent();
+        assertThat(adviceJobService.claim("node-b", 10)).extracting(AdviceJob::getId).containsExactly(jobId);
+    }
+
+    @Test
+    void heartbeatKeepsTheLeaseAlive() {
+        Long jobId = enqueue(3L);
+        adviceJobService.claim("node-a", 10);
+        LocalDateTime before = adviceJobRepository.findById(jobId).orElseThrow().getLeaseUntil();
+
+        assertThat(adviceJobService.renew(jobId, "node-a")).isTrue();
+        assertThat(adviceJobRepository.findById(jobId).orElseThrow().getLeaseUntil()).isAfterOrEqualTo(before);
+        assertThat(adviceJobService.claim("node-b", 10)).isEmpty();
+    }
+
+    @Test
+    void concurrentClaimSkipsRowsLockedByTheOtherWorker() throws Exception {
+        Long jobId = enqueue(4L);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // node-a 가 행을 잠근 채로 커밋을 미루는 동안 node-b 가 가져가기 시도
+        CompletableFuture<List<AdviceJob>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<AdviceJob> jobs = adviceJobService.claim("node-a", 10);
+            locked.countDown();
+            try {
+                proceed.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return jobs;
+        }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<AdviceJob> second = adviceJobService.claim("node-b", 10);
+        proceed.countDown();
+
+        assertThat(second).isEmpty();
+        assertThat(first.get(10, TimeUnit.SECONDS)).extracting(AdviceJob::getId).containsExactly(jobId);
+        assertThat(adviceJobRepository.findById(jobId).orElseThrow().getLeaseOwner()).isEqualTo("node-a");
+    }
+
+    private Long enqueue(Long recordId) {
+        adviceJobService.enqueue(recordId, null);
+        return adviceJobRepository.findAll().stream()
+                .filter(job -> job.getRecordId().equals(recordId))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    private void expireLease(Long jobId) {
+        AdviceJob job = adviceJobRepository.findById(jobId).orElseThrow();
+        job.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+        adviceJobRepository.save(job);
+    }
+}
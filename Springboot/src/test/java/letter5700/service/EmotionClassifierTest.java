@@ -0,0 +1,111 @@
+package letter5700.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import letter5700.vector.FloatVector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 고정 벡터로 확인하는 감정 분류 (API 호출 없음)
+ * - 라벨마다 축 하나: 예시 문장은 자기 라벨 축 + 약간의 잡음
+ */
+class EmotionClassifierTest {
+
+    private static final List<String> LABELS = new ArrayList<>(EmotionClassifier.SEED_EXAMPLES.keySet());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmotionClassifier classifier;
+
+    @AfterEach
+    void close() {
+        if (classifier != null) classifier.close();
+    }
+
+    // 예시 문장 -> 그 라벨 축 방향 벡터 (예시마다 다른 축에 작은 잡음)
+    private static FloatVector seedVector(String example) {
+        for (Map.Entry<String, List<String>> entry : EmotionClassifier.SEED_EXAMPLES.entrySet()) {
+            int index = entry.getValue().indexOf(example);
+            if (index >= 0) {
+                float[] values = new float[LABELS.size()];
+                values[LABELS.indexOf(entry.getKey())] = 1f;
+                values[(LABELS.indexOf(entry.getKey()) + index + 1) % LABELS.size()] = 0.1f;
+                return FloatVector.wrap(values);
+            }
+        }
+        throw new IllegalArgumentException("예시 문장이 아님: " + example);
+    }
+
+    private EmotionClassifier classifier(Function<String, FloatVector> embedder) {
+        classifier = new EmotionClassifier(embedder, meterRegistry, 0.55, 0.02);
+        return classifier;
+    }
+
+    private static FloatVector vector(Map<String, Float> weights) {
+        float[] values = new float[LABELS.size()];
+        weights.forEach((label, weight) -> values[LABELS.indexOf(label)] = weight);
+        return FloatVector.wrap(values);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("emotion.classifier").tag("result", result).counter().count();
+    }
+
+    @Test
+    void classifiesNearestCentroid() {
+        EmotionClassifier classifier = classifier(EmotionClassifierTest::seedVector);
+        classifier.init().join();
+
+        assertThat(classifier.classify(vector(Map.of("슬픔", 1f)))).contains("슬픔");
+        // 크기는 상관없음 (코사인 유사도)
+        assertThat(classifier.classify(vector(Map.of("피로", 5f, "우울", 1f)))).contains("피로");
+        assertThat(count("local")).isEqualTo(2);
+    }
+
+    @Test
+    void fallsBackWhenTopTwoAreTooClose() {
+        EmotionClassifier classifier = classifier(EmotionClassifierTest::seedVector);
+        classifier.init().join();
+
+        // 기쁨 / 평온 사이 정중앙 -> 1등 점수는 min-score 이상이지만 2등과 차이가 min-margin 미만
+        assertThat(classifier.classify(vector(Map.of("기쁨", 1f, "평온", 1f)))).isEmpty();
+        // 차이가 충분하면 분류
+        assertThat(classifier.classify(vector(Map.of("기쁨", 1f, "평온", 0.5f)))).contains("기쁨");
+        assertThat(count("fallback")).isEqualTo(1);
+        assertThat(count("local")).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackWhenBestScoreIsLow() {
+        EmotionClassifier classifier = classifier(EmotionClassifierTest::seedVector);
+        classifier.init().join();
+
+        // 모든 라벨에 고르게 걸친 벡터 -> 1등 유사도가 min-score 미만
+        float[] flat = new float[LABELS.size()];
+        Arrays.fill(flat, 1f);
+        flat[0] = 1.5f;
+        assertThat(classifier.classify(FloatVector.wrap(flat))).isEmpty();
+        assertThat(classifier.classify(FloatVector.wrap(new float[LABELS.size()]))).isEmpty();
+        assertThat(count("fallback")).isEqualTo(2);
+    }
+
+    @Test
+    void fallsBackBeforeReadyAndAfterFailedInit() {
+        EmotionClassifier classifier = classifier(example -> {
+            throw new IllegalStateException("임베딩 실패");
+        });
+        assertThat(classifier.classify(vector(Map.of("기쁨", 1f)))).isEmpty();
+
+        // 실패해도 future 는 정상 완료, 분류기는 꺼진 상태 유지
+        classifier.init().join();
+        assertThat(classifier.classify(vector(Map.of("기쁨", 1f)))).isEmpty();
+        assertThat(count("fallback")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,130 @@
+package letter5700.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 프로세스 내 벡터 저장소 테스트
+ * - HNSW 검색이 전수 비교 결과를 충분히 찾는지 (recall@10)
+ * - 스냅샷 저장 -> 새 저장소에서 복원 (벡터 / payload / 파티션)
+ */
+class InMemoryVectorStoreTest {
+
+    private static final int DIMENSIONS = 32;
+
+    private static FloatVector randomVector(SplittableRandom random) {
+        float[] values = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            values[i] = (float) random.nextGaussian();
+        }
+        return FloatVector.wrap(values);
+    }
+
+    private static List<VectorPoint> randomPoints(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<VectorPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new VectorPoint(UUID.randomUUID(), randomVector(random),
+                    Map.of("memberId", String.valueOf(i % 5), "no", i)));
+        }
+        return points;
+    }
+
+    private static Set<UUID> ids(List<SearchHit> hits) {
+        Set<UUID> ids = new HashSet<>();
+        for (SearchHit hit : hits) ids.add(hit.id());
+        return ids;
+    }
+
+    // 같은 포인트를 넣은 HNSW 저장소 / 전수 비교 저장소의 상위 10개 겹침 비율
+    private static double recallAt10(InMemoryVectorStore hnsw, InMemoryVectorStore exact, int queries) {
+        SplittableRandom random = new SplittableRandom(42);
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            FloatVector query = randomVector(random);
+            Set<UUID> expected = ids(exact.search(query, 10));
+            Set<UUID> actual = ids(hnsw.search(query, 10));
+            actual.retainAll(expected);
+            found += actual.size();
+        }
+        return found / (queries * 10.0);
+    }
+
+    @Test
+    void hnswRecallIsCloseToExactSearch() {
+        InMemoryVectorStore hnsw = new InMemoryVectorStore(DIMENSIONS, 100, 16, 100, 64, null, null, 0);
+        InMemoryVectorStore exact = new InMemoryVectorStore(DIMENSIONS, Integer.MAX_VALUE, 16, 100, 64, null, null, 0);
+        List<VectorPoint> points = randomPoints(3000, 7);
+        hnsw.upsert(points, true);
+        exact.upsert(points, true);
+
+        assertThat(recallAt10(hnsw, exact, 100)).isGreaterThanOrEqualTo(0.9);
+
+        // 삭제(tombstone) 이후에도 결과에 삭제된 포인트가 없고 recall 유지
+        List<UUID> removed = points.subList(0, 1000).stream().map(VectorPoint::id).toList();
+        hnsw.delete(removed);
+        exact.delete(removed);
+        assertThat(recallAt10(hnsw, exact, 100)).isGreaterThanOrEqualTo(0.9);
+        assertThat(ids(hnsw.search(points.get(0).vector(), 10))).doesNotContainAnyElementsOf(removed);
+    }
+
+    @Test
+    void snapshotRoundTripRestoresVectorsPayloadAndPartitions(@TempDir Path dir) {
+        Path snapshot = dir.resolve("store.vst");
+        List<VectorPoint> points = randomPoints(50, 11);
+
+        InMemoryVectorStore original = new InMemoryVectorStore(DIMENSIONS, Integer.MAX_VALUE, 0, 0, 0, snapshot, "memberId", 60_000);
+        original.upsert(points, true);
+        original.delete(List.of(points.get(0).id()));
+        original.deleteWhere("memberId", "4");
+        // 저장은 모아서 나중에 -> 아직 파일 없음, 종료 시 남은 변경 저장
+        assertThat(snapshot).doesNotExist();
+        original.close();
+        assertThat(snapshot).exists();
+
+        InMemoryVectorStore restored = new InMemoryVectorStore(DIMENSIONS, Integer.MAX_VALUE, 0, 0, 0, snapshot, "memberId", 60_000);
+        restored.ensureCollection();
+        assertThat(restored.listIds()).isEqualTo(original.listIds()).hasSize(39);
+
+        FloatVector query = points.get(3).vector();
+        assertThat(restored.search(query, 5)).isEqualTo(original.search(query, 5));
+        List<SearchHit> partition = restored.search(query, 100, "memberId", "3");
+        assertThat(partition).hasSize(10).allMatch(hit -> hit.payload().get("memberId").equals("3"));
+        assertThat(partition.get(0).id()).isEqualTo(points.get(3).id());
+        assertThat(((Number) partition.get(0).payload().get("no")).intValue()).isEqualTo(3);
+        assertThat(restored.search(query, 100, "memberId", "4")).isEmpty();
+    }
+
+    @Test
+    void snapshotIsWrittenOnceAfterTheDelay(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("store.vst");
+        InMemoryVectorStore store = new InMemoryVectorStore(DIMENSIONS, Integer.MAX_VALUE, 0, 0, 0, snapshot, null, 200);
+        for (VectorPoint point : randomPoints(20, 3)) {
+            store.upsert(List.of(point), false);
+        }
+        assertThat(snapshot).doesNotExist();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Files.exists(snapshot) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(snapshot).exists();
+
+        InMemoryVectorStore restored = new InMemoryVectorStore(DIMENSIONS, Integer.MAX_VALUE, 0, 0, 0, snapshot, null, 200);
+        restored.ensureCollection();
+        assertThat(restored.listIds()).hasSize(20);
+        store.close();
+    }
+}